@@ -0,0 +1,225 @@
+package com.github.lpandzic.bdd4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local store of behavior durations used as a performance regression gate.
+ *
+ * <p>Samples are kept in an append only binary log, one {@code (behavior, nanos)} record per passing measurement.
+ * The log is read on every measurement and only the last {@link #WINDOW} samples of each behavior are used for
+ * comparison, older
+ * samples are dropped from the log when it is loaded and has grown past {@link #COMPACTION_FACTOR} times the used
+ * samples.
+ *
+ * <p>Behaviors are keyed by their call site including the line number so editing a test file above a call site starts
+ * a new baseline for it. Samples of keys that are no longer used stay in the log, at most {@link #WINDOW} per key,
+ * until the log is deleted.
+ *
+ * @author Lovro Pandzic
+ */
+final class Baselines {
+
+    /**
+     * System property used to override the location of the baseline log.
+     */
+    static final String FILE_PROPERTY = "bdd4j.baselines";
+
+    /**
+     * Number of most recent samples of a behavior used for computing the baseline.
+     */
+    static final int WINDOW = 20;
+
+    /**
+     * Minimal number of samples required before a behavior can fail on regression.
+     */
+    static final int MINIMAL_SAMPLES = 5;
+
+    /**
+     * The log is compacted on load once it holds this many times more records than are used.
+     */
+    static final int COMPACTION_FACTOR = 2;
+
+    private static final Baselines INSTANCE = new Baselines(Paths.get(System.getProperty(FILE_PROPERTY,
+                                                                                        "target/bdd4j/baselines.log")));
+
+    static Baselines instance() {
+
+        return INSTANCE;
+    }
+
+    private final Path file;
+
+    Baselines(Path file) {
+
+        this.file = file;
+    }
+
+    /**
+     * Compares {@code durationNanos} of the {@code behavior} against the median of its previous samples and records
+     * it if it passes.
+     *
+     * <p>Allowed duration is {@code median * (1 + tolerance)} widened by three scaled median absolute deviations so
+     * that noisy behaviors don't fail on jitter.
+     *
+     * <p>The log is read, compacted and appended to while holding an exclusive lock on it so that samples recorded
+     * concurrently by other JVMs, e.g. surefire forks or {@link ShardedExecutor} forks, are neither missed nor lost.
+     *
+     * @param behavior      key of the measured behavior
+     * @param durationNanos measured duration
+     * @param tolerance     allowed relative slowdown, e.g. {@code 0.2} for 20%
+     *
+     * @throws AssertionError if the behavior regressed
+     */
+    synchronized void requireNoRegression(String behavior, long durationNanos, double tolerance) {
+
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("tolerance must not be negative: " + tolerance);
+        }
+
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                        StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Map<String, Deque<Long>> samples = load(channel);
+                requireNoRegression(samples.getOrDefault(behavior, new ArrayDeque<>()), behavior, durationNanos,
+                                    tolerance);
+                append(channel, behavior, durationNanos);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not update baselines in " + file, e);
+        }
+    }
+
+    private static void requireNoRegression(Deque<Long> behaviorSamples, String behavior, long durationNanos,
+                                            double tolerance) {
+
+        if (behaviorSamples.size() < MINIMAL_SAMPLES) {
+            return;
+        }
+
+        List<Long> sorted = new ArrayList<>(behaviorSamples);
+        Collections.sort(sorted);
+        double median = median(sorted);
+        List<Double> deviations = new ArrayList<>();
+        for (Long sample : sorted) {
+            deviations.add(Math.abs(sample - median));
+        }
+        Collections.sort(deviations);
+        double deviation = 1.4826 * deviations.get(deviations.size() / 2);
+        double limit = median * (1 + tolerance) + 3 * deviation;
+
+        if (durationNanos > limit) {
+            throw new AssertionError("Behavior " + behavior + " regressed: took " + millis(durationNanos) +
+                                             " ms, baseline median is " + millis(median) + " ms, limit is " +
+                                             millis(limit) + " ms");
+        }
+    }
+
+    private static Map<String, Deque<Long>> load(FileChannel channel) throws IOException {
+
+        Map<String, Deque<Long>> loaded = new LinkedHashMap<>();
+        long records = 0;
+
+        channel.position(0);
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+        try {
+            while (true) {
+                String behavior = input.readUTF();
+                long durationNanos = input.readLong();
+                add(loaded.computeIfAbsent(behavior, key -> new ArrayDeque<>()), durationNanos);
+                records++;
+            }
+        } catch (EOFException e) {
+            // end of log or a truncated last record
+        }
+
+        long kept = loaded.values().stream().mapToLong(Deque::size).sum();
+
+        if (records > COMPACTION_FACTOR * kept) {
+            compact(channel, loaded);
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Rewrites the log in place so that it contains only the {@code samples} that are still used.
+     */
+    private static void compact(FileChannel channel, Map<String, Deque<Long>> samples) throws IOException {
+
+        channel.truncate(0);
+
+        for (Map.Entry<String, Deque<Long>> entry : samples.entrySet()) {
+            for (Long durationNanos : entry.getValue()) {
+                append(channel, entry.getKey(), durationNanos);
+            }
+        }
+    }
+
+    private static void append(FileChannel channel, String behavior, long durationNanos) throws IOException {
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(record);
+        output.writeUTF(behavior);
+        output.writeLong(durationNanos);
+
+        ByteBuffer buffer = ByteBuffer.wrap(record.toByteArray());
+        channel.position(channel.size());
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void add(Deque<Long> behaviorSamples, long durationNanos) {
+
+        behaviorSamples.addLast(durationNanos);
+
+        if (behaviorSamples.size() > WINDOW) {
+            behaviorSamples.removeFirst();
+        }
+    }
+
+    private static double median(List<Long> sorted) {
+
+        int middle = sorted.size() / 2;
+
+        if (sorted.size() % 2 == 0) {
+            return (sorted.get(middle - 1) + sorted.get(middle)) / 2.0;
+        }
+
+        return sorted.get(middle);
+    }
+
+    private static String millis(double nanos) {
+
+        return String.format("%.3f", nanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
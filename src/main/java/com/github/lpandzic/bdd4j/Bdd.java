@@ -12,6 +12,11 @@ final class Bdd {
      */
     private static ThreadLocal<Optional<Throwable>> thrownException = new ThreadLocal<>().withInitial(Optional::empty);
 
+    /**
+     * {@link ThreadLocal} {@link VirtualTime} given to the current behavior or {@link Optional#empty()}.
+     */
+    private static ThreadLocal<Optional<VirtualTime>> virtualTime = ThreadLocal.withInitial(Optional::empty);
+
     /**
      * Inserts the {@code throwable} into {@link #thrownException}.
      *
@@ -21,6 +26,7 @@ final class Bdd {
 
         requireThatNoUnexpectedExceptionWasThrown();
 
+        Events.ExceptionEvent.commit("captured", throwable);
         thrownException.set(Optional.of(throwable));
     }
 
@@ -44,6 +50,7 @@ final class Bdd {
     static <T extends Throwable> void throwUnexpectedException(Optional<Throwable> throwable) throws T {
 
         if (throwable.isPresent()) {
+            Events.ExceptionEvent.commit("rethrown", throwable.get());
             throw (T) throwable.get();
         }
     }
@@ -61,6 +68,44 @@ final class Bdd {
         }
     }
 
+    /**
+     * Sets the {@link #virtualTime} advanced by {@link Then} before asserting.
+     *
+     * @param virtualTime to set
+     */
+    static void putVirtualTime(VirtualTime virtualTime) {
+
+        Bdd.virtualTime.set(Optional.of(virtualTime));
+    }
+
+    /**
+     * Retrieves and removes {@link #virtualTime}.
+     *
+     * Used by {@link Then} so that a given virtual time is scoped to a single behavior.
+     *
+     * @return {@link #virtualTime}
+     *
+     * @throws IllegalStateException if no virtual time was given
+     */
+    static VirtualTime takeVirtualTime() {
+
+        Optional<VirtualTime> virtualTime = Bdd.virtualTime.get();
+
+        Bdd.virtualTime.remove();
+
+        return virtualTime.orElseThrow(() -> new IllegalStateException(
+                "No virtual time was given, call Bdd4j.given(VirtualTime) before the when block"));
+    }
+
+    /**
+     * Removes {@link #thrownException} and {@link #virtualTime} of the current thread.
+     */
+    static void reset() {
+
+        thrownException.remove();
+        virtualTime.remove();
+    }
+
     private Bdd() {
 
     }
@@ -1,6 +1,9 @@
 package com.github.lpandzic.bdd4j;
 
+import java.util.concurrent.Flow;
+
 import static com.github.lpandzic.bdd4j.Bdd.requireThatNoUnexpectedExceptionWasThrown;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Bdd4j provides a simple and fluent API for structuring test code within when and then blocks used in Behavior-driven
@@ -133,4 +136,42 @@ public class Bdd4j {
 
         return new When().when(value);
     }
+
+    /**
+     * Used for specifying behavior that publishes items.
+     *
+     * <p>The returned {@link Then.Emits} subscribes with explicit demand and fails the behavior if the publisher
+     * delivers more items than requested:
+     * <pre>{@code
+     * when(deathStar.targets()).withDemand(1).then(target -> assertThat(target.isDestroyed(), is(false)));
+     * }</pre>
+     *
+     * @param publisher of items
+     * @param <T>       type of published items
+     *
+     * @return new {@link Then.Emits}
+     */
+    public static <T> Then.Emits<T> when(Flow.Publisher<T> publisher) {
+
+        requireThatNoUnexpectedExceptionWasThrown();
+
+        return new When().when(publisher);
+    }
+
+    /**
+     * Used for specifying virtual time advanced by {@link Then.Returns#thenAfter} or {@link Then.Throws#thenAfter}
+     * of the next behavior on the current thread, the virtual time is cleared once that behavior is asserted.
+     *
+     * @param virtualTime used by the tested behaviors
+     *
+     * @return {@code virtualTime}
+     */
+    public static VirtualTime given(VirtualTime virtualTime) {
+
+        requireThatNoUnexpectedExceptionWasThrown();
+
+        Bdd.putVirtualTime(requireNonNull(virtualTime));
+
+        return virtualTime;
+    }
 }
@@ -0,0 +1,71 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.runner.Computer;
+import org.junit.runner.RunWith;
+import org.junit.runner.Runner;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * {@link Computer} running test classes and/or their test methods concurrently with isolated when and then state.
+ *
+ * <p>Usage:
+ * <pre>{@code
+ * JUnitCore.runClasses(Bdd4jParallelComputer.methods(), DeathStarTest.class, TargetTest.class);
+ * }</pre>
+ *
+ * <p>Classes without a {@code @RunWith} annotation are run by {@link Bdd4jParallelRunner}, on a single thread
+ * unless test methods are run concurrently. Other classes are run by their own runner.
+ *
+ * @author Lovro Pandzic
+ */
+public class Bdd4jParallelComputer extends Computer {
+
+    /**
+     * @return {@link Bdd4jParallelComputer} running test classes concurrently
+     */
+    public static Computer classes() {
+
+        return new Bdd4jParallelComputer(true, false);
+    }
+
+    /**
+     * @return {@link Bdd4jParallelComputer} running test methods concurrently
+     */
+    public static Computer methods() {
+
+        return new Bdd4jParallelComputer(false, true);
+    }
+
+    private final boolean classes;
+    private final boolean methods;
+
+    public Bdd4jParallelComputer(boolean classes, boolean methods) {
+
+        this.classes = classes;
+        this.methods = methods;
+    }
+
+    @Override
+    public Runner getSuite(RunnerBuilder builder, Class<?>[] classes) throws InitializationError {
+
+        Runner suite = super.getSuite(builder, classes);
+
+        if (this.classes && suite instanceof ParentRunner) {
+            ((ParentRunner<?>) suite).setScheduler(new ParallelScheduler("classes", ParallelScheduler.parallelism()));
+        }
+
+        return suite;
+    }
+
+    @Override
+    protected Runner getRunner(RunnerBuilder builder, Class<?> testClass) throws Throwable {
+
+        if (!testClass.isAnnotationPresent(RunWith.class)) {
+            return new Bdd4jParallelRunner(testClass, methods ? ParallelScheduler.parallelism() : 1);
+        }
+
+        return super.getRunner(builder, testClass);
+    }
+}
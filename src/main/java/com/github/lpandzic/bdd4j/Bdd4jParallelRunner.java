@@ -0,0 +1,105 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JUnit 4 runner that runs test methods of a class concurrently on a bounded pool of threads.
+ *
+ * <p>Usage:
+ * <pre>{@code
+ * @RunWith(Bdd4jParallelRunner.class)
+ * public class DeathStarTest {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>Each test starts and ends with empty when and then state so an exception thrown in a when block without a then
+ * fails the test that caused it instead of a later test sharing the same thread. The number of threads defaults to
+ * the number of available processors and can be changed with the {@code bdd4j.parallelism} system property.
+ * Durations of finished tests are available through {@link #getDurations()} and are printed once all tests of the
+ * class have finished if the {@code bdd4j.timings} system property is set to {@code true}.
+ *
+ * @author Lovro Pandzic
+ * @see Bdd4jParallelComputer
+ */
+public class Bdd4jParallelRunner extends BlockJUnit4ClassRunner {
+
+    /**
+     * System property used to enable printing of test durations to standard output.
+     */
+    static final String TIMINGS_PROPERTY = "bdd4j.timings";
+
+    private final Map<Description, Long> durations = new ConcurrentHashMap<>();
+
+    public Bdd4jParallelRunner(Class<?> testClass) throws InitializationError {
+
+        this(testClass, ParallelScheduler.parallelism());
+    }
+
+    Bdd4jParallelRunner(Class<?> testClass, int parallelism) throws InitializationError {
+
+        super(testClass);
+        setScheduler(new ParallelScheduler(testClass.getSimpleName(), parallelism));
+    }
+
+    /**
+     * @return durations in nanoseconds of finished tests
+     */
+    public Map<Description, Long> getDurations() {
+
+        return durations;
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+
+        super.run(notifier);
+
+        if (!Boolean.getBoolean(TIMINGS_PROPERTY)) {
+            return;
+        }
+
+        List<Map.Entry<Description, Long>> finished = new ArrayList<>(durations.entrySet());
+        finished.sort(Map.Entry.<Description, Long>comparingByValue().reversed());
+
+        for (Map.Entry<Description, Long> entry : finished) {
+            System.out.println(entry.getKey().getDisplayName() + " took " +
+                                       TimeUnit.NANOSECONDS.toMillis(entry.getValue()) + " ms");
+        }
+    }
+
+    @Override
+    protected Statement methodBlock(FrameworkMethod method) {
+
+        Statement statement = super.methodBlock(method);
+        Description description = describeChild(method);
+
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+
+                Bdd.reset();
+                long start = System.nanoTime();
+
+                try {
+                    statement.evaluate();
+                    Bdd.requireThatNoUnexpectedExceptionWasThrown();
+                } finally {
+                    durations.put(description, System.nanoTime() - start);
+                    Bdd.reset();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,226 @@
+package com.github.lpandzic.bdd4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Blocked and waited time of threads concurrently running a when block, measured with {@link ThreadMXBean} thread
+ * contention monitoring.
+ *
+ * <p>Monitoring is enabled only while measurements are running and the previous setting is restored after the last
+ * concurrently running one finishes, so other when blocks aren't slowed down by it.
+ *
+ * @author Lovro Pandzic
+ */
+final class Contention {
+
+    /**
+     * Default number of threads concurrently running the when block.
+     */
+    static final int DEFAULT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final int TOP_MONITORS = 5;
+
+    private static final Object MONITORING_LOCK = new Object();
+
+    /**
+     * Number of running measurements, guarded by {@link #MONITORING_LOCK}.
+     */
+    private static int measurements;
+
+    /**
+     * Thread contention monitoring setting before the first running measurement, guarded by {@link
+     * #MONITORING_LOCK}.
+     */
+    private static boolean monitoringEnabledBefore;
+
+    /**
+     * Runs {@code throwableSupplier} once on each of {@code threads} threads started at the same time and collects
+     * their blocked and waited times.
+     *
+     * <p>Any exception thrown by {@code throwableSupplier} is rethrown.
+     *
+     * @param throwableSupplier when block
+     * @param threads           number of threads
+     *
+     * @return measured {@link Contention}
+     *
+     * @throws UnsupportedOperationException if the JVM doesn't support thread contention monitoring
+     * @throws IllegalStateException         if thread contention monitoring was disabled during the measurement
+     * @throws AssertionError                if the measuring thread was interrupted
+     */
+    static Contention measure(ThrowableSupplier<?> throwableSupplier, int threads) {
+
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        if (!threadMXBean.isThreadContentionMonitoringSupported()) {
+            throw new UnsupportedOperationException("Thread contention monitoring is not supported by this JVM");
+        }
+
+        enableMonitoring(threadMXBean);
+
+        try {
+            return measure(throwableSupplier, threads, threadMXBean);
+        } finally {
+            disableMonitoring(threadMXBean);
+        }
+    }
+
+    /**
+     * Enables thread contention monitoring for the first of concurrently running measurements.
+     */
+    private static void enableMonitoring(ThreadMXBean threadMXBean) {
+
+        synchronized (MONITORING_LOCK) {
+            if (measurements++ == 0) {
+                monitoringEnabledBefore = threadMXBean.isThreadContentionMonitoringEnabled();
+                threadMXBean.setThreadContentionMonitoringEnabled(true);
+            }
+        }
+    }
+
+    /**
+     * Restores the thread contention monitoring setting once the last of concurrently running measurements finished.
+     */
+    private static void disableMonitoring(ThreadMXBean threadMXBean) {
+
+        synchronized (MONITORING_LOCK) {
+            if (--measurements == 0) {
+                threadMXBean.setThreadContentionMonitoringEnabled(monitoringEnabledBefore);
+            }
+        }
+    }
+
+    private static Contention measure(ThrowableSupplier<?> throwableSupplier, int threads,
+                                      ThreadMXBean threadMXBean) {
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong blockedMillis = new AtomicLong();
+        AtomicLong waitedMillis = new AtomicLong();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                long id = Thread.currentThread().getId();
+                ThreadInfo before = threadMXBean.getThreadInfo(id);
+
+                try {
+                    throwableSupplier.get();
+                } catch (Throwable t) {
+                    thrown.compareAndSet(null, t);
+                } finally {
+                    ThreadInfo after = threadMXBean.getThreadInfo(id);
+                    if (before.getBlockedTime() < 0 || before.getWaitedTime() < 0 || after.getBlockedTime() < 0 ||
+                            after.getWaitedTime() < 0) {
+                        thrown.compareAndSet(null, new IllegalStateException(
+                                "Thread contention monitoring was disabled while measuring"));
+                    } else {
+                        blockedMillis.addAndGet(after.getBlockedTime() - before.getBlockedTime());
+                        waitedMillis.addAndGet(after.getWaitedTime() - before.getWaitedTime());
+                    }
+                }
+            }, "bdd4j-contention-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        long[] ids = workers.stream().mapToLong(Thread::getId).toArray();
+        Map<String, Integer> monitors = new ConcurrentHashMap<>();
+
+        start.countDown();
+
+        try {
+            while (workers.stream().anyMatch(Thread::isAlive)) {
+                for (ThreadInfo threadInfo : threadMXBean.getThreadInfo(ids)) {
+                    if (threadInfo != null && threadInfo.getLockName() != null && threadInfo.getThreadState() !=
+                            Thread.State.RUNNABLE) {
+                        monitors.merge(threadInfo.getLockName(), 1, Integer::sum);
+                    }
+                }
+                Thread.sleep(1);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.forEach(Thread::interrupt);
+            throw new AssertionError("Interrupted while measuring contention", e);
+        }
+
+        Bdd.throwUnexpectedException(Optional.ofNullable(thrown.get()));
+
+        List<String> topMonitors = monitors.entrySet()
+                                           .stream()
+                                           .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                                           .limit(TOP_MONITORS)
+                                           .map(entry -> entry.getKey() + " (" + entry.getValue() + " samples)")
+                                           .collect(Collectors.toList());
+
+        return new Contention(threads, blockedMillis.get(), waitedMillis.get(), topMonitors);
+    }
+
+    private final int threads;
+    private final long blockedMillis;
+    private final long waitedMillis;
+    private final List<String> topMonitors;
+
+    /**
+     * @param duration maximal allowed total blocked time in milliseconds
+     *
+     * @throws AssertionError if threads were blocked for longer
+     */
+    void requireBlockedAtMost(long duration) {
+
+        require("blocked", blockedMillis, duration);
+    }
+
+    /**
+     * @param duration maximal allowed total waited time in milliseconds
+     *
+     * @throws AssertionError if threads waited for longer
+     */
+    void requireWaitedAtMost(long duration) {
+
+        require("waited", waitedMillis, duration);
+    }
+
+    private void require(String state, long actual, long duration) {
+
+        if (actual > duration) {
+            throw new AssertionError("Expected " + threads + " threads running the when block to be " + state +
+                                             " at most " + duration + " ms in total but they were " + state + " " +
+                                             actual + " ms, most contended monitors: " + topMonitors);
+        }
+    }
+
+    private Contention(int threads, long blockedMillis, long waitedMillis, List<String> topMonitors) {
+
+        this.threads = threads;
+        this.blockedMillis = blockedMillis;
+        this.waitedMillis = waitedMillis;
+        this.topMonitors = topMonitors;
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.lpandzic.bdd4j;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link Flow.Subscriber} that requests items in batches of fixed demand and verifies that the publisher never
+ * delivers more items than were requested.
+ *
+ * <p>Items are handed over to the consuming thread one by one so at most {@code demand} items are ever buffered. On
+ * the first item delivered beyond the requested demand the subscription is cancelled and further items are dropped.
+ *
+ * @param <T> type of subscribed items
+ *
+ * @author Lovro Pandzic
+ */
+final class DemandSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final long demand;
+    private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+    private final AtomicLong outstanding = new AtomicLong();
+    private final CountDownLatch subscribed = new CountDownLatch(1);
+    private volatile Flow.Subscription subscription;
+    private volatile String violation;
+
+    DemandSubscriber(long demand) {
+
+        if (demand <= 0) {
+            throw new IllegalArgumentException("demand must be positive: " + demand);
+        }
+
+        this.demand = demand;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+
+        this.subscription = subscription;
+        subscribed.countDown();
+    }
+
+    @Override
+    public void onNext(T item) {
+
+        if (violation != null) {
+            return;
+        }
+
+        if (item == null) {
+            violate("Publisher delivered a null item");
+            return;
+        }
+
+        if (outstanding.decrementAndGet() < 0) {
+            violate("Publisher delivered more items than the requested demand of " + demand);
+            return;
+        }
+
+        signals.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+
+        signals.add(new Terminal(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+
+        signals.add(new Terminal(null));
+    }
+
+    /**
+     * Requests items in batches of {@code demand} and passes each one to {@code consumer} until the publisher
+     * terminates.
+     *
+     * @param consumer of items
+     * @param timeout  maximal wait for each signal
+     *
+     * @return error signaled by the publisher or {@link Optional#empty()} if it completed normally
+     *
+     * @throws AssertionError if the publisher violated the requested demand or didn't signal within {@code timeout}
+     */
+    @SuppressWarnings("unchecked")
+    Optional<Throwable> consume(Consumer<? super T> consumer, Duration timeout) {
+
+        try {
+            if (!subscribed.await(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new AssertionError("Publisher did not call onSubscribe within " + timeout.toMillis() + " ms");
+            }
+
+            request();
+            long received = 0;
+
+            while (true) {
+                Object signal = signals.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+
+                requireNoViolation();
+
+                if (signal == null) {
+                    subscription.cancel();
+                    throw new AssertionError("Publisher did not signal within " + timeout.toMillis() + " ms");
+                }
+
+                if (signal instanceof Terminal) {
+                    return Optional.ofNullable(((Terminal) signal).error);
+                }
+
+                try {
+                    consumer.accept((T) signal);
+                } catch (RuntimeException | Error e) {
+                    subscription.cancel();
+                    throw e;
+                }
+
+                if (++received == demand) {
+                    received = 0;
+                    request();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while waiting for publisher", e);
+        }
+    }
+
+    private void request() {
+
+        outstanding.accumulateAndGet(demand, (current, added) -> {
+            long sum = current + added;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        });
+        subscription.request(demand);
+    }
+
+    /**
+     * Records the first {@code violation}, cancels the subscription and wakes up the consuming thread. Items
+     * delivered afterwards are dropped so a publisher ignoring demand can't fill the buffer.
+     */
+    private void violate(String violation) {
+
+        if (this.violation == null) {
+            this.violation = violation;
+            subscription.cancel();
+            signals.add(new Terminal(null));
+        }
+    }
+
+    private void requireNoViolation() {
+
+        if (violation != null) {
+            subscription.cancel();
+            throw new AssertionError(violation);
+        }
+    }
+
+    private static final class Terminal {
+
+        private final Throwable error;
+
+        private Terminal(Throwable error) {
+
+            this.error = error;
+        }
+    }
+}
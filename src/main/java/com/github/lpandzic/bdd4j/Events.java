@@ -0,0 +1,145 @@
+package com.github.lpandzic.bdd4j;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.security.CodeSource;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Java Flight Recorder events emitted by when and then blocks.
+ *
+ * <p>All events are disabled by default and have to be enabled in a custom {@code .jfc} settings file or with {@code
+ * Recording.enable("com.github.lpandzic.bdd4j.When")}. While disabled the only cost is the allocation of an event
+ * object which is usually eliminated by the JIT.
+ *
+ * @author Lovro Pandzic
+ */
+final class Events {
+
+    @Name("com.github.lpandzic.bdd4j.When")
+    @Label("When")
+    @Description("Execution of a when block")
+    @Category("Bdd4j")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class WhenEvent extends Event {
+
+        @Label("Kind")
+        @Description("value or supplier, a value is computed before the when block is entered so its duration is "
+                + "always close to zero")
+        String kind;
+
+        @Label("Outcome")
+        @Description("returned or threw")
+        String outcome;
+
+        @Label("Exception")
+        String exception;
+
+        @Label("Test Method")
+        String testMethod;
+
+        void commit(String kind, Throwable thrown) {
+
+            end();
+
+            if (shouldCommit()) {
+                this.kind = kind;
+                this.outcome = thrown == null ? "returned" : "threw";
+                this.exception = thrown == null ? null : thrown.getClass().getName();
+                this.testMethod = testMethod();
+                commit();
+            }
+        }
+    }
+
+    @Name("com.github.lpandzic.bdd4j.Then")
+    @Label("Then")
+    @Description("Execution of a then block")
+    @Category("Bdd4j")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ThenEvent extends Event {
+
+        @Label("Method")
+        String method;
+
+        @Label("Outcome")
+        @Description("passed or failed")
+        String outcome;
+
+        @Label("Test Method")
+        String testMethod;
+
+        void commit(String method, boolean passed) {
+
+            end();
+
+            if (shouldCommit()) {
+                this.method = method;
+                this.outcome = passed ? "passed" : "failed";
+                this.testMethod = testMethod();
+                commit();
+            }
+        }
+    }
+
+    @Name("com.github.lpandzic.bdd4j.Exception")
+    @Label("Exception")
+    @Description("Exception captured from or rethrown after a when block")
+    @Category("Bdd4j")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ExceptionEvent extends Event {
+
+        @Label("Action")
+        @Description("captured or rethrown")
+        String action;
+
+        @Label("Exception")
+        String exception;
+
+        @Label("Test Method")
+        String testMethod;
+
+        static void commit(String action, Throwable throwable) {
+
+            ExceptionEvent event = new ExceptionEvent();
+
+            if (event.shouldCommit()) {
+                event.action = action;
+                event.exception = throwable.getClass().getName();
+                event.testMethod = testMethod();
+                event.commit();
+            }
+        }
+    }
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(
+            StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * @return first method on the stack outside of this library, usually the test method
+     */
+    private static String testMethod() {
+
+        CodeSource library = Events.class.getProtectionDomain().getCodeSource();
+
+        Optional<StackWalker.StackFrame> caller = STACK_WALKER.walk(frames -> frames.filter(
+                frame -> !Objects.equals(library, frame.getDeclaringClass().getProtectionDomain().getCodeSource()))
+                                                                        .findFirst());
+
+        return caller.map(frame -> frame.getClassName() + "#" + frame.getMethodName()).orElse(null);
+    }
+
+    private Events() {
+
+    }
+}
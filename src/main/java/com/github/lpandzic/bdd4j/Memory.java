@@ -0,0 +1,85 @@
+package com.github.lpandzic.bdd4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory related assertions used by {@link Then}.
+ *
+ * @author Lovro Pandzic
+ */
+final class Memory {
+
+    /**
+     * Default time to wait for an object to be garbage collected.
+     */
+    static final Duration DEFAULT_RETENTION_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Default number of times a when block is run for measuring heap growth.
+     */
+    static final int DEFAULT_ITERATIONS = 100;
+
+    private static final long POLL_MILLIS = 50;
+
+    /**
+     * Nudges the garbage collector until the object referenced by {@code reference} is collected or {@code timeout}
+     * elapses.
+     *
+     * @param reference to the object that should not be retained
+     * @param timeout   bounded wait for collection
+     *
+     * @throws AssertionError if the object was not collected in time
+     */
+    static void requireCollected(WeakReference<?> reference, Duration timeout) {
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        do {
+            System.gc();
+            if (reference.get() == null) {
+                return;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        } while (System.nanoTime() < deadline);
+
+        if (reference.get() != null) {
+            throw new AssertionError("Expected " + reference.get() + " not to be retained but it was still reachable" +
+                                             " after " + timeout.toMillis() + " ms");
+        }
+    }
+
+    /**
+     * @return used heap in bytes after nudging the garbage collector
+     */
+    static long usedHeapAfterGc() {
+
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                TimeUnit.MILLISECONDS.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = Math.min(used, memoryMXBean.getHeapMemoryUsage().getUsed());
+        }
+
+        return used;
+    }
+
+    private Memory() {
+
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.runners.model.RunnerScheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link RunnerScheduler} running children of a JUnit runner concurrently on a bounded pool of daemon threads.
+ *
+ * @author Lovro Pandzic
+ */
+final class ParallelScheduler implements RunnerScheduler {
+
+    /**
+     * System property used to override the number of threads, defaults to the number of available processors.
+     */
+    static final String PARALLELISM_PROPERTY = "bdd4j.parallelism";
+
+    static int parallelism() {
+
+        return Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    private final ExecutorService executorService;
+
+    ParallelScheduler(String name, int parallelism) {
+
+        AtomicInteger count = new AtomicInteger();
+        this.executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void schedule(Runnable childStatement) {
+
+        executorService.execute(childStatement);
+    }
+
+    @Override
+    public void finished() {
+
+        executorService.shutdown();
+
+        try {
+            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
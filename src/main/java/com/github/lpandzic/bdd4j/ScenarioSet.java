@@ -0,0 +1,26 @@
+package com.github.lpandzic.bdd4j;
+
+/**
+ * Indexed set of scenarios that can be run by {@link ShardedExecutor} in forked JVMs.
+ *
+ * <p>Implementations are instantiated in each forked JVM so they must have a no-arg constructor and must create the
+ * same scenarios for the same index in every JVM.
+ *
+ * @author Lovro Pandzic
+ */
+public interface ScenarioSet {
+
+    /**
+     * @return number of scenarios
+     */
+    int size();
+
+    /**
+     * Runs the scenario at {@code index}, a scenario fails by throwing.
+     *
+     * @param index of the scenario, from {@code 0} to {@code size() - 1}
+     *
+     * @throws Throwable if the scenario failed
+     */
+    void run(int index) throws Throwable;
+}
@@ -0,0 +1,85 @@
+package com.github.lpandzic.bdd4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Constructor;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Entry point of JVMs forked by {@link ShardedExecutor}.
+ *
+ * <p>Connects to the loopback port given by the parent JVM, reads scenario indexes from it until a negative index and
+ * writes a result for each of them back. Standard output is left to the scenarios and the JVM itself.
+ *
+ * @author Lovro Pandzic
+ */
+final class ShardWorker {
+
+    public static void main(String[] args) throws Exception {
+
+        ScenarioSet scenarioSet = instantiate(args[0]);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[1]))) {
+            run(scenarioSet, new DataInputStream(new BufferedInputStream(socket.getInputStream())),
+                new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+        }
+    }
+
+    private static void run(ScenarioSet scenarioSet, DataInputStream fromParent, DataOutputStream toParent)
+            throws IOException {
+
+        for (int index = fromParent.readInt(); index >= 0; index = fromParent.readInt()) {
+            Bdd.reset();
+            long start = System.nanoTime();
+            Throwable failure = null;
+
+            try {
+                scenarioSet.run(index);
+                Bdd.requireThatNoUnexpectedExceptionWasThrown();
+            } catch (Throwable t) {
+                failure = t;
+            }
+
+            writeResult(toParent, index, System.nanoTime() - start, failure);
+        }
+    }
+
+    static ScenarioSet instantiate(String className) throws ReflectiveOperationException {
+
+        Constructor<? extends ScenarioSet> constructor = Class.forName(className)
+                                                              .asSubclass(ScenarioSet.class)
+                                                              .getDeclaredConstructor();
+        constructor.setAccessible(true);
+
+        return constructor.newInstance();
+    }
+
+    private static void writeResult(DataOutputStream toParent, int index, long durationNanos, Throwable failure)
+            throws IOException {
+
+        toParent.writeInt(index);
+        toParent.writeLong(durationNanos);
+        toParent.writeBoolean(failure != null);
+
+        if (failure != null) {
+            StringWriter stackTrace = new StringWriter();
+            failure.printStackTrace(new PrintWriter(stackTrace));
+            byte[] bytes = stackTrace.toString().getBytes(StandardCharsets.UTF_8);
+            toParent.writeInt(bytes.length);
+            toParent.write(bytes);
+        }
+
+        toParent.flush();
+    }
+
+    private ShardWorker() {
+
+    }
+}
@@ -0,0 +1,324 @@
+package com.github.lpandzic.bdd4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a {@link ScenarioSet} in forked JVMs on the local machine and merges their results.
+ *
+ * <p>Forked JVMs use the class path of the current JVM and communicate with it over a loopback socket. Their standard
+ * output and error, including output of JVM logging such as {@code -Xlog:gc}, are copied to {@link System#out} and
+ * {@link System#err} of the current JVM. Each one takes the next scenario from a shared queue as soon as it finishes
+ * the previous one so slow scenarios don't hold up a whole shard:
+ * <pre>{@code
+ * when(ShardedExecutor.forks(4).withJvmArguments("-Xmx2g").execute(Scenarios.class)).then(result -> {
+ *     assertThat(result.getFailures().isEmpty(), is(true));
+ * });
+ * }</pre>
+ *
+ * @author Lovro Pandzic
+ */
+public final class ShardedExecutor {
+
+    private static final int ACCEPT_POLL_MILLIS = 100;
+
+    /**
+     * @param forks number of forked JVMs
+     *
+     * @return new {@link ShardedExecutor}
+     */
+    public static ShardedExecutor forks(int forks) {
+
+        if (forks <= 0) {
+            throw new IllegalArgumentException("forks must be positive: " + forks);
+        }
+
+        return new ShardedExecutor(forks, Collections.emptyList());
+    }
+
+    private final int forks;
+    private final List<String> jvmArguments;
+
+    /**
+     * @param jvmArguments passed to every forked JVM, e.g. {@code -Xmx2g}
+     *
+     * @return new {@link ShardedExecutor} with the given {@code jvmArguments}
+     */
+    public ShardedExecutor withJvmArguments(String... jvmArguments) {
+
+        return new ShardedExecutor(forks, Arrays.asList(jvmArguments));
+    }
+
+    /**
+     * Runs all scenarios of {@code scenarioSet} and waits for the forked JVMs to exit.
+     *
+     * <p>A scenario running when its JVM exits unexpectedly fails, the remaining scenarios are run by the other JVMs.
+     * If the current thread is interrupted all forked JVMs are destroyed and the scenarios that didn't finish fail.
+     *
+     * @param scenarioSet class with a no-arg constructor
+     *
+     * @return merged {@link ShardedResult}
+     */
+    public ShardedResult execute(Class<? extends ScenarioSet> scenarioSet) {
+
+        int size;
+
+        try {
+            size = ShardWorker.instantiate(scenarioSet.getName()).size();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Could not instantiate " + scenarioSet.getName(), e);
+        }
+
+        Execution execution = new Execution(size);
+        List<Process> processes = new ArrayList<>();
+        List<Thread> shards = new ArrayList<>();
+        List<Thread> pumps = new ArrayList<>();
+        long start = System.nanoTime();
+
+        try {
+            for (int i = 0; i < forks; i++) {
+                ServerSocket serverSocket = listen();
+                execution.sockets.add(serverSocket);
+                Process process = fork(scenarioSet, serverSocket.getLocalPort());
+                processes.add(process);
+                pumps.add(start(() -> pump(process.getInputStream(), System.out), "bdd4j-shard-" + i + "-out"));
+                pumps.add(start(() -> pump(process.getErrorStream(), System.err), "bdd4j-shard-" + i + "-err"));
+                shards.add(start(() -> execution.runShard(serverSocket, process), "bdd4j-shard-" + i));
+            }
+
+            for (Thread shard : shards) {
+                shard.join();
+            }
+        } catch (InterruptedException e) {
+            execution.interrupted = true;
+        } finally {
+            execution.sockets.forEach(ShardedExecutor::closeQuietly);
+            processes.forEach(Process::destroyForcibly);
+            shards.forEach(ShardedExecutor::joinUninterruptibly);
+            pumps.forEach(ShardedExecutor::joinUninterruptibly);
+
+            if (execution.interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        String notRun = execution.interrupted ? "execution was interrupted" : "all forked JVMs exited";
+
+        for (int index = 0; index < size; index++) {
+            if (!execution.durations.containsKey(index)) {
+                execution.failures.putIfAbsent(index, "Scenario " + index + " was not run, " + notRun);
+            }
+        }
+
+        return new ShardedResult(size, Duration.ofNanos(System.nanoTime() - start), execution.durations,
+                                 execution.failures);
+    }
+
+    private static ServerSocket listen() {
+
+        try {
+            return new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open a loopback socket for a forked JVM", e);
+        }
+    }
+
+    private Process fork(Class<? extends ScenarioSet> scenarioSet, int port) {
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArguments);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        command.add(scenarioSet.getName());
+        command.add(String.valueOf(port));
+
+        try {
+            Process process = new ProcessBuilder(command).start();
+            process.getOutputStream().close();
+            return process;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not fork a JVM with " + command, e);
+        }
+    }
+
+    /**
+     * Waits for the forked {@code process} to connect to {@code serverSocket} for as long as it is alive.
+     */
+    private static Socket accept(ServerSocket serverSocket, Process process) throws IOException {
+
+        try (ServerSocket closed = serverSocket) {
+            closed.setSoTimeout(ACCEPT_POLL_MILLIS);
+
+            while (true) {
+                try {
+                    return closed.accept();
+                } catch (SocketTimeoutException e) {
+                    if (!process.isAlive()) {
+                        throw new IOException("Forked JVM exited with exit code " + process.exitValue() +
+                                                      " before connecting", e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String exitCode(Process process) {
+
+        try {
+            return String.valueOf(process.waitFor());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+
+    private static Thread start(Runnable runnable, String name) {
+
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+
+        return thread;
+    }
+
+    /**
+     * Copies output of a forked JVM to {@code target} until the JVM exits.
+     */
+    private static void pump(InputStream output, PrintStream target) {
+
+        byte[] buffer = new byte[8192];
+
+        try (InputStream closed = output) {
+            for (int read = closed.read(buffer); read >= 0; read = closed.read(buffer)) {
+                target.write(buffer, 0, read);
+                target.flush();
+            }
+        } catch (IOException e) {
+            // the forked JVM was destroyed
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // nothing left to release
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+
+        boolean interrupted = false;
+
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ShardedExecutor(int forks, List<String> jvmArguments) {
+
+        this.forks = forks;
+        this.jvmArguments = jvmArguments;
+    }
+
+    /**
+     * State shared by the shards of a single {@link #execute(Class)}.
+     */
+    private static final class Execution {
+
+        private final int size;
+        private final AtomicInteger next = new AtomicInteger();
+        private final Map<Integer, Duration> durations = new ConcurrentHashMap<>();
+        private final Map<Integer, String> failures = new ConcurrentHashMap<>();
+
+        /**
+         * Server and accepted sockets, closed once the execution finishes to release shards blocked on reading.
+         */
+        private final List<Closeable> sockets = new CopyOnWriteArrayList<>();
+        private volatile boolean interrupted;
+
+        private Execution(int size) {
+
+            this.size = size;
+        }
+
+        private void runShard(ServerSocket serverSocket, Process process) {
+
+            int index = -1;
+
+            try (Socket socket = accept(serverSocket, process)) {
+                sockets.add(socket);
+                DataOutputStream toWorker = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                DataInputStream fromWorker = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+                for (index = next.getAndIncrement(); index < size; index = next.getAndIncrement()) {
+                    toWorker.writeInt(index);
+                    toWorker.flush();
+
+                    int resultIndex = fromWorker.readInt();
+
+                    if (resultIndex != index) {
+                        process.destroyForcibly();
+                        failures.put(index, "Forked JVM returned a result of scenario " + resultIndex +
+                                " while running scenario " + index + ", the shard was stopped");
+                        return;
+                    }
+
+                    durations.put(index, Duration.ofNanos(fromWorker.readLong()));
+
+                    if (fromWorker.readBoolean()) {
+                        byte[] stackTrace = new byte[fromWorker.readInt()];
+                        fromWorker.readFully(stackTrace);
+                        failures.put(index, new String(stackTrace, StandardCharsets.UTF_8));
+                    }
+                }
+
+                toWorker.writeInt(-1);
+                toWorker.flush();
+                process.waitFor();
+            } catch (IOException e) {
+                process.destroyForcibly();
+                if (!interrupted && index >= 0 && index < size) {
+                    failures.put(index, "Forked JVM exited while running scenario " + index + " with exit code " +
+                            exitCode(process) + ": " + e);
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.lpandzic.bdd4j;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Merged results of a {@link ScenarioSet} run by {@link ShardedExecutor}.
+ *
+ * @author Lovro Pandzic
+ */
+public final class ShardedResult {
+
+    private final int scenarioCount;
+    private final Duration wallTime;
+    private final Map<Integer, Duration> durations;
+    private final Map<Integer, String> failures;
+
+    /**
+     * @return number of scenarios in the set
+     */
+    public int getScenarioCount() {
+
+        return scenarioCount;
+    }
+
+    /**
+     * @return time from forking the JVMs until all of them finished
+     */
+    public Duration getWallTime() {
+
+        return wallTime;
+    }
+
+    /**
+     * @return durations of finished scenarios by their index
+     */
+    public Map<Integer, Duration> getDurations() {
+
+        return durations;
+    }
+
+    /**
+     * @return stack traces of failed scenarios by their index
+     */
+    public Map<Integer, String> getFailures() {
+
+        return failures;
+    }
+
+    /**
+     * @throws AssertionError listing failed scenarios if any scenario failed
+     */
+    public void requireAllPassed() {
+
+        if (!failures.isEmpty()) {
+            StringBuilder message = new StringBuilder().append(failures.size()).append(" of ").append(scenarioCount)
+                                                       .append(" scenarios failed: ").append(failures.keySet());
+
+            failures.forEach((index, stackTrace) -> message.append("\n\nScenario ").append(index).append(":\n")
+                                                            .append(stackTrace));
+
+            throw new AssertionError(message.toString());
+        }
+    }
+
+    ShardedResult(int scenarioCount, Duration wallTime, Map<Integer, Duration> durations,
+                  Map<Integer, String> failures) {
+
+        this.scenarioCount = scenarioCount;
+        this.wallTime = wallTime;
+        this.durations = Collections.unmodifiableMap(new TreeMap<>(durations));
+        this.failures = Collections.unmodifiableMap(new TreeMap<>(failures));
+    }
+}
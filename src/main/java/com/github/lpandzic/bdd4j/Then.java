@@ -1,6 +1,9 @@
 package com.github.lpandzic.bdd4j;
 
+import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
 /**
@@ -17,30 +20,249 @@ public final class Then {
      */
     public static final class Throws<T extends Throwable> {
 
-        Throws() {
+        private final long durationNanos;
+        private ThrowableSupplier<T> throwableSupplier;
+
+        Throws(ThrowableSupplier<T> throwableSupplier, long durationNanos) {
+
+            this.throwableSupplier = throwableSupplier;
+            this.durationNanos = durationNanos;
         }
 
         public void then(Consumer<Throwable> consumer) {
 
-            Optional<Throwable> throwable = Bdd.takeThrownException();
-            consumer.accept(throwable.orElse(null));
+            Events.ThenEvent event = new Events.ThenEvent();
+            event.begin();
+            boolean passed = false;
+
+            try {
+                Optional<Throwable> throwable = Bdd.takeThrownException();
+                consumer.accept(throwable.orElse(null));
+                passed = true;
+            } finally {
+                event.commit("then", passed);
+            }
+        }
+
+        /**
+         * Advances the {@link Bdd4j#given(VirtualTime) given} virtual time by {@code duration} and then passes the
+         * thrown exception to {@code consumer}.
+         *
+         * <p>The given virtual time is consumed, subsequent behaviors have to be given a virtual time again.
+         *
+         * @param duration to advance the virtual time by
+         * @param consumer of thrown exception or {@code null}
+         *
+         * @throws IllegalStateException if no virtual time was given
+         */
+        public void thenAfter(Duration duration, Consumer<Throwable> consumer) {
+
+            Bdd.takeVirtualTime().advance(duration);
+
+            then(consumer);
         }
 
         @SuppressWarnings("unchecked")
         public <E extends T> void thenChecked(Consumer<E> consumer) {
 
+            Events.ThenEvent event = new Events.ThenEvent();
+            event.begin();
+            boolean passed = false;
             Optional<Throwable> throwable = Bdd.takeThrownException();
 
             try {
                 consumer.accept((E) throwable.orElse(null));
+                passed = true;
             }  catch (ClassCastException e) {
                 Bdd.throwUnexpectedException(throwable);
+            } finally {
+                event.commit("thenChecked", passed);
             }
         }
 
         public void thenShouldNotThrow() {
             Bdd.requireThatNoUnexpectedExceptionWasThrown();
         }
+
+        /**
+         * Compares the duration of the when block against the baseline recorded by previous runs of the same
+         * behavior, keyed by the test method and line calling this method. Editing the test file above the call site
+         * therefore starts a new baseline.
+         *
+         * <p>Baselines are stored in {@code target/bdd4j/baselines.log} unless overridden by the {@code
+         * bdd4j.baselines} system property.
+         *
+         * @param tolerance allowed relative slowdown against the baseline median, e.g. {@code 0.2} for 20%
+         *
+         * @throws AssertionError if the behavior is slower than the baseline allows
+         */
+        public void thenDoesNotRegress(double tolerance) {
+
+            Bdd.requireThatNoUnexpectedExceptionWasThrown();
+
+            StackTraceElement callSite = new Throwable().getStackTrace()[1];
+            String behavior = callSite.getClassName() + "#" + callSite.getMethodName() + ":" +
+                    callSite.getLineNumber();
+
+            Baselines.instance().requireNoRegression(behavior, durationNanos, tolerance);
+        }
+
+        /**
+         * Runs the when block concurrently on as many threads as there are available processors, but at least two,
+         * and asserts that they were blocked on monitors for at most {@code duration} in total.
+         *
+         * @param duration maximal allowed total blocked time
+         *
+         * @throws AssertionError                if the threads were blocked for longer, listing the most contended
+         *                                       monitors
+         * @throws UnsupportedOperationException if the JVM doesn't support thread contention monitoring
+         */
+        public void thenBlocksAtMost(Duration duration) {
+
+            thenBlocksAtMost(duration, Contention.DEFAULT_THREADS);
+        }
+
+        /**
+         * Runs the when block concurrently on {@code threads} threads and asserts that they were blocked on monitors
+         * for at most {@code duration} in total.
+         *
+         * @param duration maximal allowed total blocked time
+         * @param threads  number of threads concurrently running the when block
+         *
+         * @throws AssertionError                if the threads were blocked for longer, listing the most contended
+         *                                       monitors
+         * @throws UnsupportedOperationException if the JVM doesn't support thread contention monitoring
+         */
+        public void thenBlocksAtMost(Duration duration, int threads) {
+
+            Bdd.requireThatNoUnexpectedExceptionWasThrown();
+
+            Contention.measure(throwableSupplier, threads).requireBlockedAtMost(duration.toMillis());
+        }
+
+        /**
+         * Runs the when block concurrently on as many threads as there are available processors, but at least two,
+         * and asserts that they waited for at most {@code duration} in total.
+         *
+         * @param duration maximal allowed total waited time
+         *
+         * @throws AssertionError                if the threads waited for longer, listing the most contended monitors
+         * @throws UnsupportedOperationException if the JVM doesn't support thread contention monitoring
+         */
+        public void thenWaitsAtMost(Duration duration) {
+
+            thenWaitsAtMost(duration, Contention.DEFAULT_THREADS);
+        }
+
+        /**
+         * Runs the when block concurrently on {@code threads} threads and asserts that they waited for at most {@code
+         * duration} in total.
+         *
+         * @param duration maximal allowed total waited time
+         * @param threads  number of threads concurrently running the when block
+         *
+         * @throws AssertionError                if the threads waited for longer, listing the most contended monitors
+         * @throws UnsupportedOperationException if the JVM doesn't support thread contention monitoring
+         */
+        public void thenWaitsAtMost(Duration duration, int threads) {
+
+            Bdd.requireThatNoUnexpectedExceptionWasThrown();
+
+            Contention.measure(throwableSupplier, threads).requireWaitedAtMost(duration.toMillis());
+        }
+
+        /**
+         * Asserts that {@code object} can be garbage collected after the when block, waiting at most 5 seconds.
+         *
+         * <p><strong>Note: {@code object} is only weakly referenced so it must not be held by the test itself, for
+         * example in a local variable. Pass it as an expression instead, e.g. {@code thenDoesNotRetain(listeners
+         * .remove(0))}.</strong></p>
+         *
+         * @param object that should not be retained
+         *
+         * @throws AssertionError if {@code object} is still reachable after the wait
+         */
+        public void thenDoesNotRetain(Object object) {
+
+            WeakReference<Object> reference = new WeakReference<>(object);
+            object = null;
+
+            requireNotRetained(reference, Memory.DEFAULT_RETENTION_TIMEOUT);
+        }
+
+        /**
+         * Asserts that {@code object} can be garbage collected after the when block.
+         *
+         * @param object  that should not be retained
+         * @param timeout bounded wait for {@code object} to be collected
+         *
+         * @throws AssertionError if {@code object} is still reachable after {@code timeout}
+         * @see #thenDoesNotRetain(Object)
+         */
+        public void thenDoesNotRetain(Object object, Duration timeout) {
+
+            WeakReference<Object> reference = new WeakReference<>(object);
+            object = null;
+
+            requireNotRetained(reference, timeout);
+        }
+
+        /**
+         * Releases the when block before waiting, callers clear their {@code object} parameter first since a frame
+         * still holding it would keep it reachable.
+         */
+        private void requireNotRetained(WeakReference<Object> reference, Duration timeout) {
+
+            Bdd.requireThatNoUnexpectedExceptionWasThrown();
+
+            throwableSupplier = null;
+
+            Memory.requireCollected(reference, timeout);
+        }
+
+        /**
+         * Runs the when block 100 more times and asserts that used heap after garbage collection grew by at most
+         * {@code bytes}.
+         *
+         * @param bytes maximal allowed heap growth
+         *
+         * @throws AssertionError if the heap grew by more than {@code bytes}
+         */
+        public void thenHeapGrowthAtMost(long bytes) {
+
+            thenHeapGrowthAtMost(bytes, Memory.DEFAULT_ITERATIONS);
+        }
+
+        /**
+         * Runs the when block {@code iterations} more times and asserts that used heap after garbage collection grew
+         * by at most {@code bytes}.
+         *
+         * @param bytes      maximal allowed heap growth
+         * @param iterations number of times the when block is run
+         *
+         * @throws AssertionError if the heap grew by more than {@code bytes}
+         */
+        public void thenHeapGrowthAtMost(long bytes, int iterations) {
+
+            Bdd.requireThatNoUnexpectedExceptionWasThrown();
+
+            long before = Memory.usedHeapAfterGc();
+
+            for (int i = 0; i < iterations; i++) {
+                try {
+                    throwableSupplier.get();
+                } catch (Throwable t) {
+                    Bdd.throwUnexpectedException(Optional.of(t));
+                }
+            }
+
+            long growth = Memory.usedHeapAfterGc() - before;
+
+            if (growth > bytes) {
+                throw new AssertionError("Expected heap growth of at most " + bytes + " bytes after " + iterations +
+                                                 " iterations but was " + growth + " bytes");
+            }
+        }
     }
 
     /**
@@ -50,7 +272,7 @@ public final class Then {
      */
     public static final class Returns<T> {
 
-        private final Optional<T> value;
+        private Optional<T> value;
 
         Returns(Optional<T> value) {
 
@@ -59,7 +281,192 @@ public final class Then {
 
         public void then(Consumer<T> consumer) {
 
-            consumer.accept(value.orElse(null));
+            Events.ThenEvent event = new Events.ThenEvent();
+            event.begin();
+            boolean passed = false;
+
+            try {
+                consumer.accept(value.orElse(null));
+                passed = true;
+            } finally {
+                event.commit("then", passed);
+            }
+        }
+
+        /**
+         * Advances the {@link Bdd4j#given(VirtualTime) given} virtual time by {@code duration} and then passes the
+         * returned value to {@code consumer}.
+         *
+         * <p>The given virtual time is consumed, subsequent behaviors have to be given a virtual time again.
+         *
+         * @param duration to advance the virtual time by
+         * @param consumer of returned value
+         *
+         * @throws IllegalStateException if no virtual time was given
+         */
+        public void thenAfter(Duration duration, Consumer<T> consumer) {
+
+            Bdd.takeVirtualTime().advance(duration);
+
+            then(consumer);
+        }
+
+        /**
+         * Asserts that {@code object} can be garbage collected after the when block, waiting at most 5 seconds.
+         *
+         * <p>The returned value is released before waiting so {@code object} can also be the returned value. Like
+         * with {@link Throws#thenDoesNotRetain(Object)} it must not be held by the test itself.
+         *
+         * @param object that should not be retained
+         *
+         * @throws AssertionError if {@code object} is still reachable after the wait
+         * @see Throws#thenDoesNotRetain(Object)
+         */
+        public void thenDoesNotRetain(Object object) {
+
+            WeakReference<Object> reference = new WeakReference<>(object);
+            object = null;
+
+            requireNotRetained(reference, Memory.DEFAULT_RETENTION_TIMEOUT);
+        }
+
+        /**
+         * Asserts that {@code object} can be garbage collected after the when block.
+         *
+         * @param object  that should not be retained
+         * @param timeout bounded wait for {@code object} to be collected
+         *
+         * @throws AssertionError if {@code object} is still reachable after {@code timeout}
+         * @see Throws#thenDoesNotRetain(Object)
+         */
+        public void thenDoesNotRetain(Object object, Duration timeout) {
+
+            WeakReference<Object> reference = new WeakReference<>(object);
+            object = null;
+
+            requireNotRetained(reference, timeout);
+        }
+
+        /**
+         * Releases the returned value before waiting, callers clear their {@code object} parameter first since a
+         * frame still holding it would keep it reachable.
+         */
+        private void requireNotRetained(WeakReference<Object> reference, Duration timeout) {
+
+            value = Optional.empty();
+
+            Memory.requireCollected(reference, timeout);
+        }
+    }
+
+    /**
+     * Used to describe expected items and terminal signal of a {@link Flow.Publisher}.
+     *
+     * <p>Nothing is subscribed until one of the then methods is called. Items are requested in batches of {@link
+     * #withDemand(long) demand} and are asserted one by one as they arrive so streams of any size can be asserted
+     * without collecting them.
+     *
+     * @param <T> type of published items
+     */
+    public static final class Emits<T> {
+
+        /**
+         * Default number of items requested at once.
+         */
+        static final long DEFAULT_DEMAND = 16;
+
+        /**
+         * Default maximal wait for each signal of the publisher.
+         */
+        static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+        private final Flow.Publisher<T> publisher;
+        private final long demand;
+        private final Duration timeout;
+
+        Emits(Flow.Publisher<T> publisher, long demand, Duration timeout) {
+
+            this.publisher = publisher;
+            this.demand = demand;
+            this.timeout = timeout;
+        }
+
+        /**
+         * @param demand number of items requested at once, the publisher fails the behavior if it delivers more
+         *
+         * @return new {@link Emits} with the given {@code demand}
+         */
+        public Emits<T> withDemand(long demand) {
+
+            if (demand <= 0) {
+                throw new IllegalArgumentException("demand must be positive: " + demand);
+            }
+
+            return new Emits<>(publisher, demand, timeout);
+        }
+
+        /**
+         * @param timeout maximal wait for each signal of the publisher
+         *
+         * @return new {@link Emits} with the given {@code timeout}
+         */
+        public Emits<T> within(Duration timeout) {
+
+            return new Emits<>(publisher, demand, timeout);
+        }
+
+        /**
+         * Subscribes to the publisher and passes each item to {@code consumer} until the publisher completes.
+         *
+         * <p>An error signaled by the publisher is rethrown.
+         *
+         * @param consumer of published items
+         *
+         * @throws AssertionError if the publisher delivered more items than requested or didn't signal in time
+         */
+        public void then(Consumer<T> consumer) {
+
+            Events.ThenEvent event = new Events.ThenEvent();
+            event.begin();
+            boolean passed = false;
+
+            try {
+                Bdd.throwUnexpectedException(subscribe(consumer));
+                passed = true;
+            } finally {
+                event.commit("then", passed);
+            }
+        }
+
+        /**
+         * Subscribes to the publisher, ignores published items and passes the signaled error to {@code consumer} or
+         * {@code null} if the publisher completed normally.
+         *
+         * @param consumer of signaled error
+         *
+         * @throws AssertionError if the publisher delivered more items than requested or didn't signal in time
+         */
+        public void thenError(Consumer<Throwable> consumer) {
+
+            Events.ThenEvent event = new Events.ThenEvent();
+            event.begin();
+            boolean passed = false;
+
+            try {
+                consumer.accept(subscribe(item -> {
+                }).orElse(null));
+                passed = true;
+            } finally {
+                event.commit("thenError", passed);
+            }
+        }
+
+        private Optional<Throwable> subscribe(Consumer<T> consumer) {
+
+            DemandSubscriber<T> subscriber = new DemandSubscriber<>(demand);
+            publisher.subscribe(subscriber);
+
+            return subscriber.consume(consumer, timeout);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,369 @@
+package com.github.lpandzic.bdd4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Controllable time source consisting of a {@link Clock} and a {@link ScheduledExecutorService} that only move
+ * forward when {@link #advance(Duration)} is called.
+ *
+ * <p>Scheduled tasks are run on the thread advancing the time, ordered by their scheduled time and then by
+ * submission order, so time based behavior runs instantly and deterministically. {@code invokeAll} and {@code
+ * invokeAny} of the scheduler run the tasks that are due on the calling thread instead of waiting for them:
+ * <pre>{@code
+ * VirtualTime virtualTime = VirtualTime.startingAt(Instant.EPOCH);
+ * Cache cache = new Cache(virtualTime.clock(), virtualTime.scheduler());
+ *
+ * given(virtualTime);
+ * when(() -> cache.put(alderaan)).thenAfter(Duration.ofMinutes(5), thrownException -> {
+ *     assertThat(cache.contains(alderaan), is(false));
+ * });
+ * }</pre>
+ *
+ * @author Lovro Pandzic
+ */
+public final class VirtualTime {
+
+    /**
+     * @param start instant of the virtual clock
+     *
+     * @return new {@link VirtualTime} starting at {@code start}
+     */
+    public static VirtualTime startingAt(Instant start) {
+
+        return new VirtualTime(requireNonNull(start));
+    }
+
+    private final Instant start;
+    private final PriorityQueue<Task<?>> tasks = new PriorityQueue<>();
+    private final Scheduler scheduler = new Scheduler();
+    private volatile long elapsedNanos;
+    private long sequence;
+
+    /**
+     * @return current virtual instant
+     */
+    public Instant now() {
+
+        return start.plusNanos(elapsedNanos);
+    }
+
+    /**
+     * @return {@link Clock} in UTC showing the virtual time
+     */
+    public Clock clock() {
+
+        return new VirtualClock(ZoneOffset.UTC);
+    }
+
+    /**
+     * @return {@link ScheduledExecutorService} whose tasks are run when the virtual time is advanced past them
+     */
+    public ScheduledExecutorService scheduler() {
+
+        return scheduler;
+    }
+
+    /**
+     * Moves the virtual time forward by {@code duration} running all tasks scheduled up to the new time, including
+     * tasks scheduled by the tasks run.
+     *
+     * @param duration to advance by, {@link Duration#ZERO} runs the tasks that are already due
+     */
+    public synchronized void advance(Duration duration) {
+
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("duration must not be negative: " + duration);
+        }
+
+        long target = elapsedNanos + duration.toNanos();
+
+        while (!tasks.isEmpty() && tasks.peek().time <= target) {
+            Task<?> task = tasks.poll();
+            elapsedNanos = Math.max(elapsedNanos, task.time);
+            task.run();
+        }
+
+        elapsedNanos = target;
+    }
+
+    private synchronized <V> Task<V> schedule(Task<V> task) {
+
+        if (scheduler.shutdown) {
+            throw new RejectedExecutionException("Virtual scheduler has been shut down");
+        }
+
+        tasks.add(task);
+
+        return task;
+    }
+
+    private synchronized long nextSequence() {
+
+        return sequence++;
+    }
+
+    private VirtualTime(Instant start) {
+
+        this.start = start;
+    }
+
+    private final class VirtualClock extends Clock {
+
+        private final ZoneId zone;
+
+        private VirtualClock(ZoneId zone) {
+
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+
+            return new VirtualClock(zone);
+        }
+
+        @Override
+        public Instant instant() {
+
+            return now();
+        }
+    }
+
+    private final class Task<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+        private final long sequence = nextSequence();
+        private final long period;
+        private final boolean fixedRate;
+        private long time;
+
+        private Task(Callable<V> callable, long time) {
+
+            super(callable);
+            this.time = time;
+            this.period = 0;
+            this.fixedRate = false;
+        }
+
+        private Task(Runnable runnable, long time, long period, boolean fixedRate) {
+
+            super(runnable, null);
+            this.time = time;
+            this.period = period;
+            this.fixedRate = fixedRate;
+        }
+
+        @Override
+        public void run() {
+
+            if (period == 0) {
+                super.run();
+            } else if (runAndReset()) {
+                time = fixedRate ? time + period : elapsedNanos + period;
+                tasks.add(this);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+
+            synchronized (VirtualTime.this) {
+                tasks.remove(this);
+            }
+
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+
+            return unit.convert(time - elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+
+            if (other instanceof Task) {
+                Task<?> task = (Task<?>) other;
+                int byTime = Long.compare(time, task.time);
+                return byTime != 0 ? byTime : Long.compare(sequence, task.sequence);
+            }
+
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    private final class Scheduler extends AbstractExecutorService implements ScheduledExecutorService {
+
+        private volatile boolean shutdown;
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+
+            return schedule(Executors.callable(command), delay, unit);
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+
+            return VirtualTime.this.schedule(new Task<>(requireNonNull(callable), timeAfter(delay, unit)));
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period,
+                                                      TimeUnit unit) {
+
+            return VirtualTime.this.schedule(new Task<>(requireNonNull(command), timeAfter(initialDelay, unit),
+                                                        requirePositive(period, unit), true));
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                                                         TimeUnit unit) {
+
+            return VirtualTime.this.schedule(new Task<>(requireNonNull(command), timeAfter(initialDelay, unit),
+                                                        requirePositive(delay, unit), false));
+        }
+
+        @Override
+        public void execute(Runnable command) {
+
+            schedule(command, 0, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Runs {@code tasks} together with other tasks that are already due on the calling thread, waiting for them
+         * as the inherited implementation does would never return since virtual time doesn't move on its own.
+         */
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) {
+
+            List<Future<T>> futures = new ArrayList<>();
+
+            for (Callable<T> task : tasks) {
+                futures.add(schedule(task, 0, TimeUnit.NANOSECONDS));
+            }
+
+            advance(Duration.ZERO);
+
+            return futures;
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) {
+
+            return invokeAll(tasks);
+        }
+
+        /**
+         * Runs {@code tasks} like {@link #invokeAll(Collection)} and returns the result of the first one that
+         * completed successfully.
+         */
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws ExecutionException {
+
+            if (tasks.isEmpty()) {
+                throw new IllegalArgumentException("tasks must not be empty");
+            }
+
+            ExecutionException failure = null;
+
+            for (Future<T> future : invokeAll(tasks)) {
+                try {
+                    return future.get();
+                } catch (ExecutionException e) {
+                    failure = e;
+                } catch (InterruptedException | CancellationException e) {
+                    failure = new ExecutionException(e);
+                }
+            }
+
+            throw failure;
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws ExecutionException {
+
+            return invokeAny(tasks);
+        }
+
+        @Override
+        public void shutdown() {
+
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+
+            synchronized (VirtualTime.this) {
+                shutdown = true;
+                List<Runnable> pending = new ArrayList<>(tasks);
+                tasks.clear();
+                return pending;
+            }
+        }
+
+        @Override
+        public boolean isShutdown() {
+
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+
+            synchronized (VirtualTime.this) {
+                return shutdown && tasks.isEmpty();
+            }
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+
+            return isTerminated();
+        }
+
+        private long timeAfter(long delay, TimeUnit unit) {
+
+            return elapsedNanos + Math.max(0, unit.toNanos(delay));
+        }
+
+        private long requirePositive(long period, TimeUnit unit) {
+
+            if (period <= 0) {
+                throw new IllegalArgumentException("period must be positive: " + period);
+            }
+
+            return unit.toNanos(period);
+        }
+    }
+}
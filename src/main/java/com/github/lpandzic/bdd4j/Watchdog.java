@@ -0,0 +1,206 @@
+package com.github.lpandzic.bdd4j;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Runs when blocks on a watched thread and fails them with a {@link WatchdogException} as soon as a deadlock or a
+ * stall is detected.
+ *
+ * <p>The watchdog is enabled by setting the {@code bdd4j.watchdog} system property to the stall timeout in
+ * milliseconds. A when block is stalled if the stack of its thread didn't change for the stall timeout. A when block
+ * is deadlocked if its thread is part of a lock cycle or blocked behind one.
+ *
+ * @author Lovro Pandzic
+ */
+final class Watchdog {
+
+    /**
+     * System property containing the stall timeout in milliseconds, the watchdog is disabled if it is not set.
+     */
+    static final String STALL_TIMEOUT_PROPERTY = "bdd4j.watchdog";
+
+    private static final long CHECK_INTERVAL_MILLIS = 100;
+
+    /**
+     * @return stall timeout or {@link Optional#empty()} if the watchdog is disabled
+     */
+    static Optional<Duration> stallTimeout() {
+
+        return Optional.ofNullable(Long.getLong(STALL_TIMEOUT_PROPERTY)).map(Duration::ofMillis);
+    }
+
+    /**
+     * Runs {@code throwableSupplier} on a new daemon thread and waits for it while checking for deadlocks and stalls.
+     *
+     * @param throwableSupplier when block
+     * @param stallTimeout      maximal time the when block can go without progress
+     *
+     * @throws Throwable thrown by {@code throwableSupplier} or {@link WatchdogException} if it deadlocked or stalled
+     */
+    static void run(ThrowableSupplier<?> throwableSupplier, Duration stallTimeout) throws Throwable {
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread worker = new Thread(() -> {
+            try {
+                throwableSupplier.get();
+            } catch (Throwable t) {
+                thrown.set(t);
+            } finally {
+                done.countDown();
+            }
+        }, "bdd4j-watched-" + Thread.currentThread().getName());
+        worker.setDaemon(true);
+        worker.start();
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        StackTraceElement[] lastStackTrace = worker.getStackTrace();
+        long lastProgress = System.nanoTime();
+
+        while (!done.await(CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+            Optional<long[]> deadlock = deadlock(threadMXBean, worker.getId());
+
+            if (deadlock.isPresent()) {
+                String dump = dump(threadMXBean, deadlock.get());
+                worker.interrupt();
+                throw new WatchdogException("Deadlock detected while running when block:\n" + dump);
+            }
+
+            StackTraceElement[] stackTrace = worker.getStackTrace();
+
+            if (!Arrays.equals(stackTrace, lastStackTrace)) {
+                lastStackTrace = stackTrace;
+                lastProgress = System.nanoTime();
+            } else if (System.nanoTime() - lastProgress > stallTimeout.toNanos()) {
+                ThreadInfo threadInfo = threadMXBean.getThreadInfo(worker.getId());
+                long[] involved = threadInfo == null || threadInfo.getLockOwnerId() < 0 ?
+                        new long[]{worker.getId()} :
+                        new long[]{worker.getId(), threadInfo.getLockOwnerId()};
+                String dump = dump(threadMXBean, involved);
+                worker.interrupt();
+                throw new WatchdogException("When block made no progress for " + stallTimeout.toMillis() + " ms:\n" +
+                                                    dump);
+            }
+        }
+
+        if (thrown.get() != null) {
+            throw thrown.get();
+        }
+    }
+
+    /**
+     * Filters deadlocks found by {@link ThreadMXBean#findDeadlockedThreads()} to the one the thread with {@code
+     * workerId} is part of or blocked behind, deadlocks of unrelated threads are ignored. Lock owners are followed in
+     * a single snapshot of all threads so that a lock passed back and forth isn't mistaken for a cycle.
+     *
+     * @return ids of the worker, threads it is transitively blocked on and the deadlocked cycle or {@link
+     * Optional#empty()} if the worker is not deadlocked
+     */
+    private static Optional<long[]> deadlock(ThreadMXBean threadMXBean, long workerId) {
+
+        long[] deadlocked = threadMXBean.findDeadlockedThreads();
+
+        if (deadlocked == null) {
+            return Optional.empty();
+        }
+
+        Set<Long> deadlockedIds = LongStream.of(deadlocked).boxed().collect(Collectors.toSet());
+        Map<Long, ThreadInfo> snapshot = new HashMap<>();
+
+        for (ThreadInfo threadInfo : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds())) {
+            if (threadInfo != null) {
+                snapshot.put(threadInfo.getThreadId(), threadInfo);
+            }
+        }
+
+        List<Long> chain = new ArrayList<>();
+        long id = workerId;
+
+        while (!chain.contains(id)) {
+            ThreadInfo threadInfo = snapshot.get(id);
+
+            if (threadInfo == null || threadInfo.getLockOwnerId() < 0) {
+                return Optional.empty();
+            }
+
+            chain.add(id);
+            id = threadInfo.getLockOwnerId();
+        }
+
+        if (!deadlockedIds.containsAll(chain.subList(chain.indexOf(id), chain.size()))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(chain.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * @return full thread dump of threads with {@code ids}, unlike {@link ThreadInfo#toString()} stack traces are not
+     * truncated
+     */
+    private static String dump(ThreadMXBean threadMXBean, long[] ids) {
+
+        StringBuilder dump = new StringBuilder();
+
+        for (ThreadInfo threadInfo : threadMXBean.getThreadInfo(ids, true, true)) {
+            if (threadInfo == null) {
+                continue;
+            }
+
+            dump.append('"').append(threadInfo.getThreadName()).append("\" Id=").append(threadInfo.getThreadId())
+                .append(' ').append(threadInfo.getThreadState());
+
+            if (threadInfo.getLockName() != null) {
+                dump.append(" on ").append(threadInfo.getLockName());
+            }
+
+            if (threadInfo.getLockOwnerName() != null) {
+                dump.append(" owned by \"").append(threadInfo.getLockOwnerName()).append("\" Id=")
+                    .append(threadInfo.getLockOwnerId());
+            }
+
+            dump.append('\n');
+
+            StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+
+            for (int i = 0; i < stackTrace.length; i++) {
+                dump.append("\tat ").append(stackTrace[i]).append('\n');
+
+                for (MonitorInfo monitorInfo : threadInfo.getLockedMonitors()) {
+                    if (monitorInfo.getLockedStackDepth() == i) {
+                        dump.append("\t-  locked ").append(monitorInfo).append('\n');
+                    }
+                }
+            }
+
+            for (LockInfo lockInfo : threadInfo.getLockedSynchronizers()) {
+                dump.append("\t-  locked ").append(lockInfo).append('\n');
+            }
+
+            dump.append('\n');
+        }
+
+        return dump.toString();
+    }
+
+    private Watchdog() {
+
+    }
+}
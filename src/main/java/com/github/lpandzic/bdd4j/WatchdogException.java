@@ -0,0 +1,18 @@
+package com.github.lpandzic.bdd4j;
+
+/**
+ * Thrown from a when block that deadlocked or stopped making progress while being watched by the watchdog.
+ *
+ * <p>The message contains a full thread dump of the involved threads.
+ *
+ * @author Lovro Pandzic
+ */
+public class WatchdogException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    WatchdogException(String message) {
+
+        super(message);
+    }
+}
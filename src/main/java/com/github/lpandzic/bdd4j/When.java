@@ -1,6 +1,8 @@
 package com.github.lpandzic.bdd4j;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.Flow;
 
 /**
  * Defines behavior that is being tested.
@@ -15,6 +17,9 @@ public final class When {
     /**
      * Used for specifying behavior that should throw an exception.
      *
+     * <p>If the {@code bdd4j.watchdog} system property is set to a stall timeout in milliseconds the behavior runs on
+     * a watched thread and a deadlock or a stall is thrown as a {@link WatchdogException}.
+     *
      * @param throwableSupplier supplier or throwable
      * @param <T>               type of throwable
      *
@@ -22,13 +27,30 @@ public final class When {
      */
     public <T extends Throwable> Then.Throws<T> when(ThrowableSupplier<T> throwableSupplier) {
 
+        Events.WhenEvent event = new Events.WhenEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Throwable thrown = null;
+        Optional<Duration> stallTimeout = Watchdog.stallTimeout();
+
         try {
-            throwableSupplier.get();
+            if (stallTimeout.isPresent()) {
+                Watchdog.run(throwableSupplier, stallTimeout.get());
+            } else {
+                throwableSupplier.get();
+            }
         } catch (Throwable t) {
-            Bdd.putThrownException(t);
+            thrown = t;
         }
 
-        return new Then.Throws<>();
+        long durationNanos = System.nanoTime() - start;
+        event.commit("supplier", thrown);
+
+        if (thrown != null) {
+            Bdd.putThrownException(thrown);
+        }
+
+        return new Then.Throws<>(throwableSupplier, durationNanos);
     }
 
     /**
@@ -41,6 +63,23 @@ public final class When {
      */
     public <T> Then.Returns<T> when(T value) {
 
+        Events.WhenEvent event = new Events.WhenEvent();
+        event.begin();
+        event.commit("value", null);
+
         return new Then.Returns<>(Optional.ofNullable(value));
     }
+
+    /**
+     * Used for specifying behavior that publishes items.
+     *
+     * @param publisher of items
+     * @param <T>       type of published items
+     *
+     * @return new {@link Then.Emits}
+     */
+    public <T> Then.Emits<T> when(Flow.Publisher<T> publisher) {
+
+        return new Then.Emits<>(publisher, Then.Emits.DEFAULT_DEMAND, Then.Emits.DEFAULT_TIMEOUT);
+    }
 }
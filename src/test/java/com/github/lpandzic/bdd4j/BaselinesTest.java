@@ -0,0 +1,146 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.github.lpandzic.bdd4j.Bdd4j.when;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * @author Lovro Pandzic
+ */
+public class BaselinesTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none().handleAssertionErrors();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldPassWithoutEnoughSamples() throws IOException {
+
+        Baselines baselines = new Baselines(log());
+
+        baselines.requireNoRegression("behavior", 1000, 0.1);
+        baselines.requireNoRegression("behavior", 1000000, 0.1);
+    }
+
+    @Test
+    public void shouldPassWithinTolerance() throws IOException {
+
+        Baselines baselines = baselinesWithSamples(log(), 1000);
+
+        baselines.requireNoRegression("behavior", 1100, 0.1);
+    }
+
+    @Test
+    public void shouldFailOnRegression() throws IOException {
+
+        Baselines baselines = baselinesWithSamples(log(), 1000);
+
+        when(() -> baselines.requireNoRegression("behavior", 1200, 0.1)).then(thrownException -> {
+            assertThat(thrownException, is(instanceOf(AssertionError.class)));
+        });
+    }
+
+    @Test
+    public void shouldNotRecordRegressedSamples() throws IOException {
+
+        Path log = log();
+        Baselines baselines = baselinesWithSamples(log, 1000);
+
+        when(() -> baselines.requireNoRegression("behavior", 5000, 0.1)).then(thrownException -> {
+            assertThat(thrownException, is(instanceOf(AssertionError.class)));
+        });
+        when(() -> new Baselines(log).requireNoRegression("behavior", 5000, 0.1)).then(thrownException -> {
+            assertThat(thrownException, is(instanceOf(AssertionError.class)));
+        });
+    }
+
+    @Test
+    public void shouldLoadSamplesFromPreviousRuns() throws IOException {
+
+        Path log = log();
+        baselinesWithSamples(log, 1000);
+
+        when(() -> new Baselines(log).requireNoRegression("behavior", 1200, 0.1)).then(thrownException -> {
+            assertThat(thrownException, is(instanceOf(AssertionError.class)));
+        });
+    }
+
+    @Test
+    public void shouldKeepBehaviorsSeparate() throws IOException {
+
+        Baselines baselines = baselinesWithSamples(log(), 1000);
+
+        when(() -> baselines.requireNoRegression("other behavior", 5000, 0.1)).then(thrownException -> {
+            assertThat(thrownException, is(nullValue()));
+        });
+    }
+
+    @Test
+    public void shouldCompactLog() throws IOException {
+
+        Path log = log();
+        Baselines baselines = new Baselines(log);
+
+        for (int i = 0; i < Baselines.WINDOW * 3; i++) {
+            baselines.requireNoRegression("behavior", 1000, 0.1);
+        }
+
+        when(() -> new Baselines(log).requireNoRegression("behavior", 1200, 0.1)).then(thrownException -> {
+            assertThat(thrownException, is(instanceOf(AssertionError.class)));
+        });
+
+        long recordSize = 2 + "behavior".length() + Long.BYTES;
+        assertThat(Files.size(log) <= (Baselines.COMPACTION_FACTOR * Baselines.WINDOW + 1) * recordSize, is(true));
+    }
+
+    @Test
+    public void shouldSeeSamplesRecordedByOtherWriters() throws IOException {
+
+        Path log = log();
+        Baselines baselines = new Baselines(log);
+        baselines.requireNoRegression("other behavior", 1000, 0.1);
+
+        baselinesWithSamples(log, 1000);
+
+        when(() -> baselines.requireNoRegression("behavior", 1200, 0.1)).then(thrownException -> {
+            assertThat(thrownException, is(instanceOf(AssertionError.class)));
+        });
+    }
+
+    @Test
+    public void shouldRejectNegativeTolerance() throws IOException {
+
+        expectedException.expect(IllegalArgumentException.class);
+
+        new Baselines(log()).requireNoRegression("behavior", 1000, -0.1);
+    }
+
+    private Baselines baselinesWithSamples(Path log, long durationNanos) {
+
+        Baselines baselines = new Baselines(log);
+
+        for (int i = 0; i < Baselines.MINIMAL_SAMPLES; i++) {
+            baselines.requireNoRegression("behavior", durationNanos, 0.1);
+        }
+
+        return baselines;
+    }
+
+    private Path log() throws IOException {
+
+        return temporaryFolder.newFolder().toPath().resolve("baselines.log");
+    }
+}
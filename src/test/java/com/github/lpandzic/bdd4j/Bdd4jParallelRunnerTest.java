@@ -0,0 +1,103 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+
+import java.io.IOException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.lpandzic.bdd4j.Bdd4j.when;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * @author Lovro Pandzic
+ */
+public class Bdd4jParallelRunnerTest {
+
+    @Before
+    public void setUp() {
+
+        System.setProperty(ParallelScheduler.PARALLELISM_PROPERTY, "2");
+    }
+
+    @After
+    public void tearDown() {
+
+        System.clearProperty(ParallelScheduler.PARALLELISM_PROPERTY);
+    }
+
+    @Test
+    public void shouldRunTestMethodsConcurrently() throws Exception {
+
+        Bdd4jParallelRunner runner = new Bdd4jParallelRunner(ConcurrentBehaviors.class);
+
+        Result result = new JUnitCore().run(Request.runner(runner));
+
+        assertThat(result.getRunCount(), is(2));
+        assertThat(result.getFailureCount(), is(0));
+        assertThat(runner.getDurations().size(), is(2));
+    }
+
+    @Test
+    public void shouldFailTestThatLeftAnUnexpectedException() {
+
+        Result result = JUnitCore.runClasses(Bdd4jParallelComputer.methods(), LeakingBehaviors.class);
+
+        assertThat(result.getRunCount(), is(2));
+        assertThat(result.getFailureCount(), is(1));
+        assertThat(result.getFailures().get(0).getDescription().getMethodName(), is(equalTo("leaksException")));
+        assertThat(result.getFailures().get(0).getException(), is(instanceOf(IOException.class)));
+    }
+
+    @Test
+    public void shouldIsolateTestClassesRunConcurrently() {
+
+        Result result = JUnitCore.runClasses(Bdd4jParallelComputer.classes(), LeakingBehaviors.class,
+                                             LeakingBehaviors.class);
+
+        assertThat(result.getRunCount(), is(4));
+        assertThat(result.getFailureCount(), is(2));
+    }
+
+    public static class ConcurrentBehaviors {
+
+        private static final CyclicBarrier barrier = new CyclicBarrier(2);
+
+        @Test
+        public void first() throws Exception {
+
+            barrier.await(5, TimeUnit.SECONDS);
+        }
+
+        @Test
+        public void second() throws Exception {
+
+            barrier.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public static class LeakingBehaviors {
+
+        @Test
+        public void leaksException() {
+
+            when(() -> {
+                throw new IOException();
+            });
+        }
+
+        @Test
+        public void returnsValue() {
+
+            when(new Object()).then(value -> assertThat(value, is(instanceOf(Object.class))));
+        }
+    }
+}
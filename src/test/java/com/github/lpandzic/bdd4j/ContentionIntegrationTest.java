@@ -0,0 +1,71 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static com.github.lpandzic.bdd4j.Bdd4j.when;
+
+/**
+ * @author Lovro Pandzic
+ */
+public class ContentionIntegrationTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none().handleAssertionErrors();
+
+    private final Object lock = new Object();
+
+    @Test
+    public void shouldPassWhenThreadsAreNotBlocked() {
+
+        when(() -> {
+            Object unshared = new Object();
+            synchronized (unshared) {
+                unshared.hashCode();
+            }
+        }).thenBlocksAtMost(Duration.ofSeconds(1), 4);
+    }
+
+    @Test
+    public void shouldFailWhenThreadsAreBlocked() {
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("to be blocked at most 10 ms");
+        expectedException.expectMessage("most contended monitors: [java.lang.Object@");
+
+        when(() -> {
+            synchronized (lock) {
+                Thread.sleep(50);
+            }
+        }).thenBlocksAtMost(Duration.ofMillis(10), 4);
+    }
+
+    @Test
+    public void shouldFailWhenThreadsWait() {
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("to be waited at most 10 ms");
+
+        when(() -> {
+            synchronized (lock) {
+                lock.wait(50);
+            }
+        }).thenWaitsAtMost(Duration.ofMillis(10), 2);
+    }
+
+    @Test
+    public void shouldRethrowExceptionOfConcurrentWhenBlock() {
+
+        expectedException.expect(IOException.class);
+
+        when(() -> {
+            if (Thread.currentThread().getName().startsWith("bdd4j-contention")) {
+                throw new IOException();
+            }
+        }).thenWaitsAtMost(Duration.ofSeconds(1), 2);
+    }
+}
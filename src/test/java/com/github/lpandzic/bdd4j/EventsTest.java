@@ -0,0 +1,115 @@
+package com.github.lpandzic.bdd4j;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.stream.Collectors;
+
+import static com.github.lpandzic.bdd4j.Bdd4j.when;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * @author Lovro Pandzic
+ */
+public class EventsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRecordWhenAndThenEvents() throws IOException {
+
+        List<RecordedEvent> events = record(() -> {
+            when(() -> {
+                throw new IllegalStateException();
+            }).then(thrownException -> {
+            });
+        });
+
+        RecordedEvent whenEvent = event(events, "When");
+        assertThat(whenEvent.getString("kind"), is(equalTo("supplier")));
+        assertThat(whenEvent.getString("outcome"), is(equalTo("threw")));
+        assertThat(whenEvent.getString("exception"), is(equalTo(IllegalStateException.class.getName())));
+        assertThat(whenEvent.getThread(), is(notNullValue()));
+        assertThat(whenEvent.getString("testMethod"), startsWith(getClass().getName() + "#"));
+        assertThat(event(events, "Exception").getString("action"), is(equalTo("captured")));
+        assertThat(event(events, "Then").getString("method"), is(equalTo("then")));
+        assertThat(event(events, "Then").getString("outcome"), is(equalTo("passed")));
+    }
+
+    @Test
+    public void shouldRecordFailedThen() throws IOException {
+
+        List<RecordedEvent> events = record(() -> {
+            try {
+                when(new Object()).then(value -> {
+                    throw new AssertionError();
+                });
+            } catch (AssertionError expected) {
+            }
+        });
+
+        assertThat(events.size(), is(2));
+        assertThat(event(events, "When").getString("kind"), is(equalTo("value")));
+        assertThat(event(events, "Then").getString("outcome"), is(equalTo("failed")));
+    }
+
+    @Test
+    public void shouldRecordThenErrorOfPublisher() throws IOException {
+
+        List<RecordedEvent> events = record(() -> {
+            SubmissionPublisher<Object> publisher = new SubmissionPublisher<>();
+            publisher.closeExceptionally(new IllegalStateException());
+            when(publisher).thenError(error -> {
+            });
+        });
+
+        assertThat(event(events, "Then").getString("method"), is(equalTo("thenError")));
+        assertThat(event(events, "Then").getString("outcome"), is(equalTo("passed")));
+    }
+
+    private List<RecordedEvent> record(Runnable behavior) throws IOException {
+
+        Path file = temporaryFolder.newFile("recording.jfr").toPath();
+
+        try (Recording recording = new Recording()) {
+            recording.enable(Events.WhenEvent.class);
+            recording.enable(Events.ThenEvent.class);
+            recording.enable(Events.ExceptionEvent.class);
+            recording.start();
+            behavior.run();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        return RecordingFile.readAllEvents(file)
+                            .stream()
+                            .filter(event -> event.getEventType().getName().startsWith("com.github.lpandzic.bdd4j"))
+                            .collect(Collectors.toList());
+    }
+
+    private RecordedEvent event(List<RecordedEvent> events, String name) {
+
+        List<RecordedEvent> named = events.stream()
+                                          .filter(event -> event.getEventType()
+                                                                .getName()
+                                                                .equals("com.github.lpandzic.bdd4j." + name))
+                                          .collect(Collectors.toList());
+
+        assertThat(named.size(), is(1));
+
+        return named.get(0);
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.lpandzic.bdd4j.Bdd4j.when;
+
+/**
+ * @author Lovro Pandzic
+ */
+public class MemoryIntegrationTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none().handleAssertionErrors();
+
+    private Map<String, Object> cache = new HashMap<>();
+
+    @Test
+    public void shouldPassWhenObjectIsNotRetained() {
+
+        AtomicReference<Object> value = new AtomicReference<>(new Object());
+        cache.put("alderaan", value.get());
+
+        when(() -> cache.remove("alderaan")).thenDoesNotRetain(value.getAndSet(null));
+    }
+
+    @Test
+    public void shouldFailWhenObjectIsRetained() {
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("not to be retained");
+
+        AtomicReference<Object> value = new AtomicReference<>(new Object());
+        cache.put("alderaan", value.get());
+
+        when(() -> cache.remove("coruscant")).thenDoesNotRetain(value.getAndSet(null), Duration.ofMillis(200));
+    }
+
+    @Test
+    public void shouldPassWhenReturnedValueIsNotRetained() {
+
+        AtomicReference<Object> value = new AtomicReference<>(new Object());
+        cache.put("alderaan", value.get());
+
+        when(cache.remove("alderaan")).thenDoesNotRetain(value.getAndSet(null));
+    }
+
+    @Test
+    public void shouldPassWhenHeapDoesNotGrow() {
+
+        when(() -> {
+            byte[] garbage = new byte[1 << 10];
+        }).thenHeapGrowthAtMost(1 << 20);
+    }
+
+    @Test
+    public void shouldFailWhenHeapGrows() {
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Expected heap growth of at most");
+
+        List<byte[]> leak = new ArrayList<>();
+
+        when(() -> leak.add(new byte[1 << 20])).thenHeapGrowthAtMost(1 << 20, 10);
+    }
+}
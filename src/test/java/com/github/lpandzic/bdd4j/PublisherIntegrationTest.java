@@ -0,0 +1,213 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Duration;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.lpandzic.bdd4j.Bdd4j.when;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * @author Lovro Pandzic
+ */
+public class PublisherIntegrationTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none().handleAssertionErrors();
+
+    @Test
+    public void shouldAssertEachItem() {
+
+        AtomicLong sum = new AtomicLong();
+
+        when(new RangePublisher(1, 100000)).withDemand(7).then(item -> {
+            assertThat(item, is(equalTo(sum.incrementAndGet())));
+        });
+
+        assertThat(sum.get(), is(100000L));
+    }
+
+    @Test
+    public void shouldAssertItemsOfAsynchronousPublisher() {
+
+        AtomicLong count = new AtomicLong();
+
+        SubmissionPublisher<Long> publisher = new SubmissionPublisher<>();
+        new Thread(() -> {
+            while (publisher.getNumberOfSubscribers() == 0) {
+                Thread.yield();
+            }
+            for (long i = 0; i < 1000; i++) {
+                publisher.submit(i);
+            }
+            publisher.close();
+        }).start();
+
+        when(publisher).withDemand(1).then(item -> assertThat(item, is(count.getAndIncrement())));
+
+        assertThat(count.get(), is(1000L));
+    }
+
+    @Test
+    public void shouldPassErrorToThenError() {
+
+        when(new RangePublisher(1, 10, new IllegalStateException("failure"))).thenError(error -> {
+            assertThat(error, is(instanceOf(IllegalStateException.class)));
+        });
+    }
+
+    @Test
+    public void shouldPassNullToThenErrorOnCompletion() {
+
+        when(new RangePublisher(1, 10)).thenError(error -> assertThat(error, is(nullValue())));
+    }
+
+    @Test
+    public void shouldRethrowErrorInThen() {
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("failure");
+
+        when(new RangePublisher(1, 10, new IllegalStateException("failure"))).then(item -> {
+        });
+    }
+
+    @Test
+    public void shouldFailWhenPublisherIgnoresDemand() {
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("more items than the requested demand of 2");
+
+        Flow.Publisher<Long> publisher = subscriber -> {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            for (long i = 0; i < 10; i++) {
+                subscriber.onNext(i);
+            }
+            subscriber.onComplete();
+        };
+
+        when(publisher).withDemand(2).then(item -> {
+        });
+    }
+
+    @Test
+    public void shouldFailFastWhenUnboundedPublisherIgnoresDemand() {
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("more items than the requested demand of 1");
+
+        Flow.Publisher<Long> publisher = subscriber -> {
+            AtomicBoolean cancelled = new AtomicBoolean();
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+
+                    cancelled.set(true);
+                }
+            });
+            for (long i = 0; i < Long.MAX_VALUE && !cancelled.get(); i++) {
+                subscriber.onNext(i);
+            }
+        };
+
+        when(publisher).withDemand(1).then(item -> {
+        });
+    }
+
+    @Test
+    public void shouldFailWhenPublisherDoesNotSignal() {
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("did not signal");
+
+        Flow.Publisher<Long> publisher = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        when(publisher).within(Duration.ofMillis(100)).then(item -> {
+        });
+    }
+
+    /**
+     * Synchronous publisher of a range of numbers honoring the requested demand.
+     */
+    private static class RangePublisher implements Flow.Publisher<Long> {
+
+        private final long from;
+        private final long to;
+        private final Throwable error;
+
+        RangePublisher(long from, long to) {
+
+            this(from, to, null);
+        }
+
+        RangePublisher(long from, long to, Throwable error) {
+
+            this.from = from;
+            this.to = to;
+            this.error = error;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Long> subscriber) {
+
+            subscriber.onSubscribe(new Flow.Subscription() {
+
+                private long next = from;
+                private boolean done;
+
+                @Override
+                public void request(long n) {
+
+                    for (long i = 0; i < n && next <= to; i++) {
+                        subscriber.onNext(next++);
+                    }
+
+                    if (next > to && !done) {
+                        done = true;
+                        if (error == null) {
+                            subscriber.onComplete();
+                        } else {
+                            subscriber.onError(error);
+                        }
+                    }
+                }
+
+                @Override
+                public void cancel() {
+
+                    done = true;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static com.github.lpandzic.bdd4j.Bdd4j.when;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * @author Lovro Pandzic
+ */
+public class ShardedExecutorTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none().handleAssertionErrors();
+
+    @Test
+    public void shouldMergeResultsOfAllForks() {
+
+        when(ShardedExecutor.forks(2).execute(FiringScenarios.class)).then(result -> {
+            assertThat(result.getScenarioCount(), is(20));
+            assertThat(result.getDurations().size(), is(20));
+            assertThat(result.getFailures().keySet(), is(equalTo(new HashSet<>(Arrays.asList(3, 10, 17)))));
+            assertThat(result.getFailures().get(3), containsString("TargetAlreadyDestroyedException"));
+            assertThat(result.getFailures().get(3), containsString("Cannot fire at a destroyed Target{name='3'}"));
+        });
+    }
+
+    @Test
+    public void shouldPassThroughOutputOfForkedJvms() {
+
+        PrintStream out = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true));
+
+        try {
+            when(ShardedExecutor.forks(2).withJvmArguments("-Xlog:gc").execute(PrintingScenarios.class)).then(
+                    result -> assertThat(result.getFailures().isEmpty(), is(true)));
+        } finally {
+            System.setOut(out);
+        }
+
+        assertThat(output.toString(), containsString("Printing 0"));
+        assertThat(output.toString(), containsString("Printing 3"));
+        assertThat(output.toString(), containsString("[gc]"));
+    }
+
+    @Test
+    public void shouldFailScenarioThatExitedItsFork() {
+
+        when(ShardedExecutor.forks(2).execute(ExitingScenarios.class)).then(result -> {
+            assertThat(result.getFailures().keySet(), is(equalTo(new HashSet<>(Arrays.asList(5)))));
+            assertThat(result.getFailures().get(5), containsString("exit code 1"));
+            assertThat(result.getDurations().size(), is(9));
+        });
+    }
+
+    @Test
+    public void shouldRequireAllScenariosToPass() {
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("3 of 20 scenarios failed: [3, 10, 17]");
+
+        ShardedExecutor.forks(2).execute(FiringScenarios.class).requireAllPassed();
+    }
+
+    public static class FiringScenarios implements ScenarioSet {
+
+        @Override
+        public int size() {
+
+            return 20;
+        }
+
+        @Override
+        public void run(int index) throws Throwable {
+
+            DeathStar deathStar = new DeathStar();
+            Target target = Target.ofName(String.valueOf(index));
+
+            if (index % 7 == 3) {
+                target.destroy();
+            }
+
+            when(() -> deathStar.fireAt(target)).thenShouldNotThrow();
+        }
+    }
+
+    public static class PrintingScenarios implements ScenarioSet {
+
+        @Override
+        public int size() {
+
+            return 4;
+        }
+
+        @Override
+        public void run(int index) {
+
+            System.out.println("Printing " + index);
+        }
+    }
+
+    public static class ExitingScenarios implements ScenarioSet {
+
+        @Override
+        public int size() {
+
+            return 10;
+        }
+
+        @Override
+        public void run(int index) {
+
+            if (index == 5) {
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.lpandzic.bdd4j.Bdd4j.given;
+import static com.github.lpandzic.bdd4j.Bdd4j.when;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * @author Lovro Pandzic
+ */
+public class VirtualTimeTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private VirtualTime virtualTime = VirtualTime.startingAt(Instant.EPOCH);
+
+    @Test
+    public void shouldAdvanceClock() {
+
+        Clock clock = virtualTime.clock();
+
+        virtualTime.advance(Duration.ofHours(1));
+
+        assertThat(clock.instant(), is(equalTo(Instant.EPOCH.plus(Duration.ofHours(1)))));
+    }
+
+    @Test
+    public void shouldRunTasksInScheduledOrder() {
+
+        List<String> runs = new ArrayList<>();
+        ScheduledExecutorService scheduler = virtualTime.scheduler();
+
+        scheduler.schedule(() -> runs.add("third"), 3, TimeUnit.SECONDS);
+        scheduler.schedule(() -> runs.add("first"), 1, TimeUnit.SECONDS);
+        scheduler.schedule(() -> runs.add("second"), 1, TimeUnit.SECONDS);
+        scheduler.schedule(() -> runs.add("never"), 1, TimeUnit.MINUTES);
+
+        virtualTime.advance(Duration.ofSeconds(3));
+
+        assertThat(runs, is(equalTo(asList("first", "second", "third"))));
+    }
+
+    @Test
+    public void shouldRunPeriodicTasks() {
+
+        List<Instant> runs = new ArrayList<>();
+
+        virtualTime.scheduler().scheduleAtFixedRate(() -> runs.add(virtualTime.now()), 0, 10, TimeUnit.SECONDS);
+
+        virtualTime.advance(Duration.ofSeconds(25));
+
+        assertThat(runs, is(equalTo(asList(Instant.EPOCH, Instant.ofEpochSecond(10), Instant.ofEpochSecond(20)))));
+    }
+
+    @Test
+    public void shouldNotRunCancelledTasks() {
+
+        List<String> runs = new ArrayList<>();
+
+        ScheduledFuture<?> future = virtualTime.scheduler().schedule(() -> runs.add("cancelled"), 1, TimeUnit.SECONDS);
+        future.cancel(false);
+
+        virtualTime.advance(Duration.ofSeconds(1));
+
+        assertThat(runs.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldRunInvokedTasksOnCallingThread() throws Exception {
+
+        List<String> runs = new ArrayList<>();
+        virtualTime.scheduler().execute(() -> runs.add("due"));
+
+        List<Future<String>> futures = virtualTime.scheduler().invokeAll(asList(() -> "first", () -> "second"));
+
+        assertThat(futures.get(0).get(), is(equalTo("first")));
+        assertThat(futures.get(1).get(), is(equalTo("second")));
+        assertThat(runs, is(equalTo(asList("due"))));
+    }
+
+    @Test
+    public void shouldReturnFirstSuccessfulResultOfInvokedTasks() throws Exception {
+
+        String result = virtualTime.scheduler().invokeAny(asList(() -> {
+            throw new IllegalStateException();
+        }, () -> "second"));
+
+        assertThat(result, is(equalTo("second")));
+    }
+
+    @Test
+    public void shouldRejectTasksAfterShutdown() {
+
+        expectedException.expect(RejectedExecutionException.class);
+
+        virtualTime.scheduler().shutdown();
+        virtualTime.scheduler().execute(() -> {
+        });
+    }
+
+    @Test
+    public void shouldAssertAfterAdvancingGivenVirtualTime() {
+
+        Map<String, Object> cache = new HashMap<>();
+
+        given(virtualTime);
+        when(() -> {
+            cache.put("alderaan", new Object());
+            virtualTime.scheduler().schedule(() -> cache.remove("alderaan"), 5, TimeUnit.MINUTES);
+        }).thenAfter(Duration.ofMinutes(5), thrownException -> {
+            assertThat(thrownException, is(nullValue()));
+            assertThat(cache.containsKey("alderaan"), is(false));
+        });
+    }
+
+    @Test
+    public void shouldAssertReturnedValueAfterAdvancingGivenVirtualTime() {
+
+        given(virtualTime);
+        when(virtualTime.now()).thenAfter(Duration.ofSeconds(1), start -> {
+            assertThat(virtualTime.now(), is(equalTo(start.plusSeconds(1))));
+        });
+    }
+
+    @Test
+    public void shouldScopeGivenVirtualTimeToSingleBehavior() {
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("No virtual time was given");
+
+        given(virtualTime);
+        when(virtualTime.now()).thenAfter(Duration.ofSeconds(1), start -> {
+        });
+
+        when(virtualTime.now()).thenAfter(Duration.ofSeconds(1), start -> {
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.lpandzic.bdd4j;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.lpandzic.bdd4j.Bdd4j.when;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * @author Lovro Pandzic
+ */
+public class WatchdogIntegrationTest {
+
+    private final ReentrantLock alderaan = new ReentrantLock();
+    private final ReentrantLock coruscant = new ReentrantLock();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+
+        System.setProperty(Watchdog.STALL_TIMEOUT_PROPERTY, "500");
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+
+        System.clearProperty(Watchdog.STALL_TIMEOUT_PROPERTY);
+
+        for (Thread thread : threads) {
+            thread.interrupt();
+            thread.join();
+        }
+
+        assertThat(ManagementFactory.getThreadMXBean().findDeadlockedThreads(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldFailOnDeadlock() {
+
+        CountDownLatch bothLocked = new CountDownLatch(2);
+
+        when(() -> {
+            startLockingInOrder(coruscant, alderaan, bothLocked);
+            lockInOrder(alderaan, coruscant, bothLocked);
+        }).then(thrownException -> {
+            assertThat(thrownException, is(instanceOf(WatchdogException.class)));
+            assertThat(thrownException.getMessage(), containsString("Deadlock detected"));
+            assertThat(thrownException.getMessage(), containsString("on " + ReentrantLock.class.getName()));
+            assertThat(thrownException.getMessage(),
+                       containsString(getClass().getName() + ".lambda$shouldFailOnDeadlock"));
+        });
+    }
+
+    @Test
+    public void shouldIgnoreDeadlockOfUnrelatedThreads() throws InterruptedException {
+
+        CountDownLatch bothLocked = new CountDownLatch(2);
+        startLockingInOrder(alderaan, coruscant, bothLocked);
+        startLockingInOrder(coruscant, alderaan, bothLocked);
+
+        while (ManagementFactory.getThreadMXBean().findDeadlockedThreads() == null) {
+            Thread.sleep(10);
+        }
+
+        when(() -> Thread.sleep(300)).then(thrownException -> assertThat(thrownException, is(nullValue())));
+    }
+
+    @Test
+    public void shouldFailOnStall() {
+
+        when(() -> new CountDownLatch(1).await()).then(thrownException -> {
+            assertThat(thrownException, is(instanceOf(WatchdogException.class)));
+            assertThat(thrownException.getMessage(), containsString("made no progress for 500 ms"));
+            assertThat(thrownException.getMessage(), containsString("WAITING"));
+        });
+    }
+
+    @Test
+    public void shouldCaptureExceptionOfWatchedWhenBlock() {
+
+        when(() -> {
+            throw new IOException();
+        }).then(thrownException -> assertThat(thrownException, is(instanceOf(IOException.class))));
+    }
+
+    private void startLockingInOrder(ReentrantLock first, ReentrantLock second, CountDownLatch bothLocked) {
+
+        Thread thread = new Thread(() -> {
+            try {
+                lockInOrder(first, second, bothLocked);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        threads.add(thread);
+    }
+
+    /**
+     * Locks interruptibly so that deadlocked threads can be stopped after the test.
+     */
+    private static void lockInOrder(ReentrantLock first, ReentrantLock second, CountDownLatch bothLocked)
+            throws InterruptedException {
+
+        first.lockInterruptibly();
+
+        try {
+            bothLocked.countDown();
+            bothLocked.await();
+            second.lockInterruptibly();
+            second.unlock();
+        } finally {
+            first.unlock();
+        }
+    }
+}